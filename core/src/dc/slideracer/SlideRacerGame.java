@@ -6,7 +6,9 @@ import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 
+import dc.slideracer.level.Fragmenter;
 import dc.slideracer.level.LevelController;
+import dc.slideracer.level.ParticleEffectCache;
 import dc.slideracer.screens.HighScoresScreen;
 import dc.slideracer.screens.LevelScreen;
 import dc.slideracer.screens.TitleScreen;
@@ -24,7 +26,10 @@ public class SlideRacerGame extends ApplicationAdapter {
 
 	private final ScreenManager screenManager = new ScreenManager();
 	private final XmlContext xmlContext = new XmlContext(XmlBindings.BOUND_CLASSES);
+	// Shared by every level, so regions are only sliced into frags once per game
+	private final Fragmenter fragmenter = new Fragmenter();
 	private TextureCache textureCache;
+	private ParticleEffectCache particleEffectCache;
 	private PolygonSpriteBatch spriteBatch;
 	private ShapeRenderer shapeRenderer;
 	private UiPack uiPack;
@@ -33,6 +38,7 @@ public class SlideRacerGame extends ApplicationAdapter {
 	@Override
 	public final void create () {
 		textureCache = createTextureCache();
+		particleEffectCache = new ParticleEffectCache(textureCache.getAtlas("objects"));
 		spriteBatch = new PolygonSpriteBatch();
 		shapeRenderer = new ShapeRenderer();
 		Point defaultScreenSize = new Point(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
@@ -56,6 +62,7 @@ public class SlideRacerGame extends ApplicationAdapter {
 	@Override
 	public final void dispose() {
 		uiPack.dispose();
+		particleEffectCache.dispose();
 		textureCache.dispose();
 		screenManager.dispose();
 		spriteBatch.dispose();
@@ -82,7 +89,8 @@ public class SlideRacerGame extends ApplicationAdapter {
 	}
 
 	private Screen createLevelScreen() {
-		final LevelController controller = new LevelController(textureCache, spriteBatch, shapeRenderer);
+		final LevelController controller = new LevelController(textureCache, particleEffectCache, fragmenter, 
+				spriteBatch, shapeRenderer);
 		final LevelScreen levelScreen = new LevelScreen(controller, uiPack);
 		controller.addFinishedListener(new DefaultListener() {
 			@Override
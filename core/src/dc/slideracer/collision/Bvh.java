@@ -0,0 +1,274 @@
+package dc.slideracer.collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import dc.slideracer.parts.CollisionPart;
+import dclib.epf.Entity;
+
+// Bounding volume hierarchy over the collision partitions of entities that don't move, such as terrain.  The 
+// partitions must already be in world space.
+public final class Bvh {
+	
+	private static final int MAX_LEAF_SIZE = 2;
+	private static final Comparator<Leaf> X_COMPARATOR = new Comparator<Leaf>() {
+		@Override
+		public final int compare(final Leaf leaf1, final Leaf leaf2) {
+			return Float.compare(leaf1.centerX, leaf2.centerX);
+		}
+	};
+	private static final Comparator<Leaf> Y_COMPARATOR = new Comparator<Leaf>() {
+		@Override
+		public final int compare(final Leaf leaf1, final Leaf leaf2) {
+			return Float.compare(leaf1.centerY, leaf2.centerY);
+		}
+	};
+	
+	private final Leaf[] leaves;
+	private final List<Node> nodes = new ArrayList<Node>();
+	// The query each entity was last added by, indexed by the entity's leaf index, so overlap queries add an entity 
+	// once without searching the results
+	private final int[] entityQueryIds;
+	private int queryId = 0;
+	
+	public Bvh(final List<Entity> entities) {
+		List<Leaf> leafList = new ArrayList<Leaf>();
+		Map<Entity, Integer> entityIndexes = new IdentityHashMap<Entity, Integer>();
+		for (Entity entity : entities) {
+			if (entity.has(CollisionPart.class) && !entityIndexes.containsKey(entity)) {
+				int entityIndex = entityIndexes.size();
+				entityIndexes.put(entity, entityIndex);
+				for (PolygonPartition partition : entity.get(CollisionPart.class).getPartitions()) {
+					leafList.add(new Leaf(entity, entityIndex, partition));
+				}
+			}
+		}
+		leaves = leafList.toArray(new Leaf[leafList.size()]);
+		entityQueryIds = new int[entityIndexes.size()];
+		if (leaves.length > 0) {
+			build(0, leaves.length);
+		}
+	}
+	
+	public final boolean isEmpty() {
+		return nodes.isEmpty();
+	}
+	
+	// Returns an entity with a partition containing the point, or null if there isn't one
+	public final Entity getEntityAt(final float x, final float y) {
+		return isEmpty() ? null : getEntityAt(0, x, y);
+	}
+	
+	// Adds the entities with a partition whose bounds overlap the area, each only once
+	public final void getOverlapping(final Rectangle area, final List<Entity> entities) {
+		if (!isEmpty()) {
+			queryId++;
+			getOverlapping(0, area, entities);
+		}
+	}
+	
+	// Returns the nearest hit along the segment from start to end, or null if nothing is hit
+	public final RaycastHit raycast(final Vector2 start, final Vector2 end) {
+		if (isEmpty()) {
+			return null;
+		}
+		Ray ray = new Ray(start, end);
+		raycast(0, ray);
+		if (ray.hitLeaf == null) {
+			return null;
+		}
+		Vector2 point = new Vector2(start).lerp(end, ray.maxFraction);
+		return new RaycastHit(ray.hitLeaf.entity, ray.maxFraction, point);
+	}
+	
+	private int build(final int start, final int end) {
+		Node node = new Node();
+		int nodeIndex = nodes.size();
+		nodes.add(node);
+		node.bounds.set(leaves[start].partition.getBoundingBox());
+		for (int i = start + 1; i < end; i++) {
+			node.bounds.merge(leaves[i].partition.getBoundingBox());
+		}
+		if (end - start <= MAX_LEAF_SIZE) {
+			node.start = start;
+			node.end = end;
+		} else {
+			Comparator<Leaf> comparator = node.bounds.width > node.bounds.height ? X_COMPARATOR : Y_COMPARATOR;
+			Arrays.sort(leaves, start, end, comparator);
+			int middle = (start + end) / 2;
+			node.left = build(start, middle);
+			node.right = build(middle, end);
+		}
+		return nodeIndex;
+	}
+	
+	private Entity getEntityAt(final int nodeIndex, final float x, final float y) {
+		Node node = nodes.get(nodeIndex);
+		if (!node.bounds.contains(x, y)) {
+			return null;
+		}
+		if (node.isLeaf()) {
+			for (int i = node.start; i < node.end; i++) {
+				float[] vertices = leaves[i].partition.getPolygon().getTransformedVertices();
+				if (Intersector.isPointInPolygon(vertices, 0, vertices.length, x, y)) {
+					return leaves[i].entity;
+				}
+			}
+			return null;
+		}
+		Entity entity = getEntityAt(node.left, x, y);
+		return entity != null ? entity : getEntityAt(node.right, x, y);
+	}
+	
+	private void getOverlapping(final int nodeIndex, final Rectangle area, final List<Entity> entities) {
+		Node node = nodes.get(nodeIndex);
+		if (!node.bounds.overlaps(area)) {
+			return;
+		}
+		if (node.isLeaf()) {
+			for (int i = node.start; i < node.end; i++) {
+				Leaf leaf = leaves[i];
+				if (entityQueryIds[leaf.entityIndex] != queryId && leaf.partition.getBoundingBox().overlaps(area)) {
+					entityQueryIds[leaf.entityIndex] = queryId;
+					entities.add(leaf.entity);
+				}
+			}
+		} else {
+			getOverlapping(node.left, area, entities);
+			getOverlapping(node.right, area, entities);
+		}
+	}
+	
+	private void raycast(final int nodeIndex, final Ray ray) {
+		Node node = nodes.get(nodeIndex);
+		if (!ray.hits(node.bounds)) {
+			return;
+		}
+		if (node.isLeaf()) {
+			for (int i = node.start; i < node.end; i++) {
+				ray.test(leaves[i]);
+			}
+		} else {
+			raycast(node.left, ray);
+			raycast(node.right, ray);
+		}
+	}
+	
+	private static final class Leaf {
+		
+		private final Entity entity;
+		private final int entityIndex;
+		private final PolygonPartition partition;
+		private final float centerX;
+		private final float centerY;
+		
+		public Leaf(final Entity entity, final int entityIndex, final PolygonPartition partition) {
+			this.entity = entity;
+			this.entityIndex = entityIndex;
+			this.partition = partition;
+			Rectangle boundingBox = partition.getBoundingBox();
+			centerX = boundingBox.x + boundingBox.width / 2;
+			centerY = boundingBox.y + boundingBox.height / 2;
+		}
+		
+	}
+	
+	private static final class Node {
+		
+		private final Rectangle bounds = new Rectangle();
+		private int left = -1;
+		private int right = -1;
+		private int start;
+		private int end;
+		
+		public final boolean isLeaf() {
+			return left < 0;
+		}
+		
+	}
+	
+	private static final class Ray {
+		
+		private final float startX;
+		private final float startY;
+		private final float directionX;
+		private final float directionY;
+		// Fraction of the nearest hit so far, which also limits how far the remaining tests need to look
+		private float maxFraction = 1;
+		private Leaf hitLeaf = null;
+		
+		public Ray(final Vector2 start, final Vector2 end) {
+			startX = start.x;
+			startY = start.y;
+			directionX = end.x - start.x;
+			directionY = end.y - start.y;
+		}
+		
+		// Slab test against the box, limited to the part of the ray before the nearest hit
+		public final boolean hits(final Rectangle box) {
+			float minFraction = 0;
+			float maxFraction = this.maxFraction;
+			if (directionX == 0) {
+				if (startX < box.x || startX > box.x + box.width) {
+					return false;
+				}
+			} else {
+				float fraction1 = (box.x - startX) / directionX;
+				float fraction2 = (box.x + box.width - startX) / directionX;
+				minFraction = Math.max(minFraction, Math.min(fraction1, fraction2));
+				maxFraction = Math.min(maxFraction, Math.max(fraction1, fraction2));
+			}
+			if (directionY == 0) {
+				if (startY < box.y || startY > box.y + box.height) {
+					return false;
+				}
+			} else {
+				float fraction1 = (box.y - startY) / directionY;
+				float fraction2 = (box.y + box.height - startY) / directionY;
+				minFraction = Math.max(minFraction, Math.min(fraction1, fraction2));
+				maxFraction = Math.min(maxFraction, Math.max(fraction1, fraction2));
+			}
+			return minFraction <= maxFraction;
+		}
+		
+		public final void test(final Leaf leaf) {
+			float[] vertices = leaf.partition.getPolygon().getTransformedVertices();
+			if (Intersector.isPointInPolygon(vertices, 0, vertices.length, startX, startY)) {
+				hit(leaf, 0);
+				return;
+			}
+			for (int i = 0; i < vertices.length; i += 2) {
+				int next = (i + 2) % vertices.length;
+				float edgeX = vertices[next] - vertices[i];
+				float edgeY = vertices[next + 1] - vertices[i + 1];
+				float denominator = directionX * edgeY - directionY * edgeX;
+				if (denominator != 0) {
+					float offsetX = vertices[i] - startX;
+					float offsetY = vertices[i + 1] - startY;
+					float rayFraction = (offsetX * edgeY - offsetY * edgeX) / denominator;
+					float edgeFraction = (offsetX * directionY - offsetY * directionX) / denominator;
+					if (rayFraction >= 0 && edgeFraction >= 0 && edgeFraction <= 1) {
+						hit(leaf, rayFraction);
+					}
+				}
+			}
+		}
+		
+		private void hit(final Leaf leaf, final float fraction) {
+			if (fraction <= maxFraction) {
+				maxFraction = fraction;
+				hitLeaf = leaf;
+			}
+		}
+		
+	}
+
+}
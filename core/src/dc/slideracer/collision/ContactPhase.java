@@ -0,0 +1,7 @@
+package dc.slideracer.collision;
+
+public enum ContactPhase {
+
+	BEGIN, PERSIST, END
+	
+}
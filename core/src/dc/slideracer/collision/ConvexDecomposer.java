@@ -0,0 +1,173 @@
+package dc.slideracer.collision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.badlogic.gdx.math.EarClippingTriangulator;
+
+// Splits a simple polygon into convex pieces by merging its triangulation (Hertel-Mehlhorn).  Nothing is shared 
+// between calls, so it is safe to use off the render thread.
+public final class ConvexDecomposer {
+	
+	private ConvexDecomposer() {
+	}
+	
+	public static final List<float[]> decompose(final float[] vertices) {
+		if (isConvex(vertices)) {
+			return toList(vertices);
+		}
+		return merge(vertices, new EarClippingTriangulator().computeTriangles(vertices).toArray());
+	}
+	
+	// Uses a triangulation that has already been computed, e.g. the one used to render the polygon
+	public static final List<float[]> decompose(final float[] vertices, final short[] triangles) {
+		if (isConvex(vertices)) {
+			return toList(vertices);
+		}
+		return merge(vertices, triangles);
+	}
+	
+	// Pieces are merged as runs of vertex indices so only the final pieces are copied out as coordinates.  A merged 
+	// piece is appended after the runs it replaces.
+	private static List<float[]> merge(final float[] vertices, final short[] triangles) {
+		int numPieces = triangles.length / 3;
+		short[] indices = new short[triangles.length * 2];
+		int[] pieceStarts = new int[numPieces];
+		int[] pieceLengths = new int[numPieces];
+		for (int i = 0; i < numPieces; i++) {
+			setCounterClockwise(vertices, triangles, i * 3, indices);
+			pieceStarts[i] = i * 3;
+			pieceLengths[i] = 3;
+		}
+		int indicesLength = triangles.length;
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (int i = 0; i < numPieces && !merged; i++) {
+				for (int j = i + 1; j < numPieces && !merged; j++) {
+					int maxMergedLength = pieceLengths[i] + pieceLengths[j] - 2;
+					if (indicesLength + maxMergedLength > indices.length) {
+						indices = Arrays.copyOf(indices, Math.max(indices.length * 2, indicesLength + maxMergedLength));
+					}
+					int mergedLength = tryMerge(vertices, indices, pieceStarts[i], pieceLengths[i], pieceStarts[j], 
+							pieceLengths[j], indicesLength);
+					if (mergedLength > 0) {
+						pieceStarts[i] = indicesLength;
+						pieceLengths[i] = mergedLength;
+						indicesLength += mergedLength;
+						numPieces--;
+						System.arraycopy(pieceStarts, j + 1, pieceStarts, j, numPieces - j);
+						System.arraycopy(pieceLengths, j + 1, pieceLengths, j, numPieces - j);
+						merged = true;
+					}
+				}
+			}
+		}
+		List<float[]> piecesVertices = new ArrayList<float[]>(numPieces);
+		for (int i = 0; i < numPieces; i++) {
+			float[] pieceVertices = new float[pieceLengths[i] * 2];
+			for (int j = 0; j < pieceLengths[i]; j++) {
+				int vertexIndex = indices[pieceStarts[i] + j];
+				pieceVertices[j * 2] = vertices[vertexIndex * 2];
+				pieceVertices[j * 2 + 1] = vertices[vertexIndex * 2 + 1];
+			}
+			piecesVertices.add(pieceVertices);
+		}
+		return piecesVertices;
+	}
+	
+	public static final boolean isConvex(final float[] vertices) {
+		int numVertices = vertices.length / 2;
+		if (numVertices < 3) {
+			return false;
+		}
+		float sign = 0;
+		for (int i = 0; i < numVertices; i++) {
+			float cross = cross(vertices, i, (i + 1) % numVertices, (i + 2) % numVertices);
+			if (cross != 0) {
+				if (sign == 0) {
+					sign = Math.signum(cross);
+				} else if (Math.signum(cross) != sign) {
+					return false;
+				}
+			}
+		}
+		return sign != 0;
+	}
+	
+	private static boolean isConvex(final float[] vertices, final short[] indices, final int start, 
+			final int numVertices) {
+		float sign = 0;
+		for (int i = 0; i < numVertices; i++) {
+			float cross = cross(vertices, indices[start + i], indices[start + (i + 1) % numVertices], 
+					indices[start + (i + 2) % numVertices]);
+			if (cross != 0) {
+				if (sign == 0) {
+					sign = Math.signum(cross);
+				} else if (Math.signum(cross) != sign) {
+					return false;
+				}
+			}
+		}
+		return sign != 0;
+	}
+	
+	private static List<float[]> toList(final float[] vertices) {
+		List<float[]> partitionsVertices = new ArrayList<float[]>();
+		partitionsVertices.add(vertices.clone());
+		return partitionsVertices;
+	}
+	
+	// Joins two counter-clockwise convex pieces across a shared edge, writing the result at mergedStart and returning 
+	// its length, or 0 if they share no edge or the result is not convex
+	private static int tryMerge(final float[] vertices, final short[] indices, final int start1, final int length1, 
+			final int start2, final int length2, final int mergedStart) {
+		for (int i = 0; i < length1; i++) {
+			int nextI = (i + 1) % length1;
+			for (int j = 0; j < length2; j++) {
+				int nextJ = (j + 1) % length2;
+				if (equals(vertices, indices[start1 + i], indices[start2 + nextJ]) 
+						&& equals(vertices, indices[start1 + nextI], indices[start2 + j])) {
+					int index = mergedStart;
+					for (int k = 0; k < length1; k++) {
+						indices[index++] = indices[start1 + (nextI + k) % length1];
+					}
+					for (int k = 2; k < length2; k++) {
+						indices[index++] = indices[start2 + (j + k) % length2];
+					}
+					int mergedLength = index - mergedStart;
+					return isConvex(vertices, indices, mergedStart, mergedLength) ? mergedLength : 0;
+				}
+			}
+		}
+		return 0;
+	}
+	
+	private static void setCounterClockwise(final float[] vertices, final short[] triangles, final int start, 
+			final short[] indices) {
+		int index1 = triangles[start];
+		int index2 = triangles[start + 1];
+		int index3 = triangles[start + 2];
+		float doubleArea = vertices[index1 * 2] * vertices[index2 * 2 + 1] - vertices[index2 * 2] * vertices[index1 * 2 + 1];
+		doubleArea += vertices[index2 * 2] * vertices[index3 * 2 + 1] - vertices[index3 * 2] * vertices[index2 * 2 + 1];
+		doubleArea += vertices[index3 * 2] * vertices[index1 * 2 + 1] - vertices[index1 * 2] * vertices[index3 * 2 + 1];
+		boolean isCounterClockwise = doubleArea >= 0;
+		indices[start] = isCounterClockwise ? triangles[start] : triangles[start + 2];
+		indices[start + 1] = triangles[start + 1];
+		indices[start + 2] = isCounterClockwise ? triangles[start + 2] : triangles[start];
+	}
+	
+	private static float cross(final float[] vertices, final int index1, final int index2, final int index3) {
+		float edge1X = vertices[index2 * 2] - vertices[index1 * 2];
+		float edge1Y = vertices[index2 * 2 + 1] - vertices[index1 * 2 + 1];
+		float edge2X = vertices[index3 * 2] - vertices[index2 * 2];
+		float edge2Y = vertices[index3 * 2 + 1] - vertices[index2 * 2 + 1];
+		return edge1X * edge2Y - edge1Y * edge2X;
+	}
+	
+	private static boolean equals(final float[] vertices, final int index1, final int index2) {
+		return vertices[index1 * 2] == vertices[index2 * 2] && vertices[index1 * 2 + 1] == vertices[index2 * 2 + 1];
+	}
+	
+}
@@ -0,0 +1,43 @@
+package dc.slideracer.collision;
+
+import dclib.epf.Entity;
+
+public final class EntityPair {
+
+	private Entity first;
+	private Entity second;
+	
+	public EntityPair(final Entity first, final Entity second) {
+		set(first, second);
+	}
+	
+	// Pairs from the broad phase are reused, so anything kept past the step should be a copy
+	public final void set(final Entity first, final Entity second) {
+		this.first = first;
+		this.second = second;
+	}
+	
+	public final Entity getFirst() {
+		return first;
+	}
+	
+	public final Entity getSecond() {
+		return second;
+	}
+	
+	// Pairs are unordered, so (a, b) equals (b, a)
+	@Override
+	public final boolean equals(final Object obj) {
+		if (!(obj instanceof EntityPair)) {
+			return false;
+		}
+		EntityPair other = (EntityPair)obj;
+		return (first == other.first && second == other.second) || (first == other.second && second == other.first);
+	}
+	
+	@Override
+	public final int hashCode() {
+		return System.identityHashCode(first) + System.identityHashCode(second);
+	}
+	
+}
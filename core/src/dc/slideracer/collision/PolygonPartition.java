@@ -1,18 +1,58 @@
 package dc.slideracer.collision;
 
+import java.util.Arrays;
+
+import com.badlogic.gdx.math.ConvexHull;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-
-import dclib.geometry.VertexUtils;
+import com.badlogic.gdx.utils.FloatArray;
 
 public final class PolygonPartition {
 	
-	private final Polygon polygon;
-	private final Vector2 localPosition;
+	private final Polygon polygon = new Polygon();
+	private final Vector2 localPosition = new Vector2();
+	// Position on the parent polygon, as of the last call to transform
+	private final float[] globalPosition = new float[2];
+	// World space bounds of the collision polygon, as of the last call to updateBoundingBox
+	private final Rectangle boundingBox = new Rectangle();
+	// Convex hull of the polygon at the start and end of the last step, in world space
+	private Polygon sweptPolygon = null;
+	// A polygon for each hull vertex count seen so far, since a polygon's vertex count is fixed by its array
+	private Polygon[] sweptPolygons = new Polygon[0];
+	private float[] sweptPoints = new float[0];
+	private boolean isSwept = false;
 	
 	public PolygonPartition(final float[] vertices) {
-		polygon = VertexUtils.toPolygon(vertices);
-		localPosition = new Vector2(polygon.getX(), polygon.getY());
+		setVertices(vertices);
+	}
+	
+	// Resets the partition to a new shape in its parent's local space.  The shape is kept relative to its bottom left 
+	// corner, in the polygon's existing array if the vertex count hasn't changed.
+	public final void setVertices(final float[] vertices) {
+		float minX = Float.MAX_VALUE;
+		float minY = Float.MAX_VALUE;
+		for (int i = 0; i < vertices.length; i += 2) {
+			minX = Math.min(minX, vertices[i]);
+			minY = Math.min(minY, vertices[i + 1]);
+		}
+		float[] localVertices = polygon.getVertices();
+		if (localVertices.length != vertices.length) {
+			localVertices = new float[vertices.length];
+		}
+		for (int i = 0; i < vertices.length; i += 2) {
+			localVertices[i] = vertices[i] - minX;
+			localVertices[i + 1] = vertices[i + 1] - minY;
+		}
+		polygon.setVertices(localVertices);
+		polygon.setOrigin(0, 0);
+		polygon.setPosition(minX, minY);
+		polygon.setRotation(0);
+		polygon.setScale(1, 1);
+		localPosition.set(minX, minY);
+		isSwept = false;
+		updateBoundingBox();
 	}
 	
 	public final Polygon getPolygon() {
@@ -23,4 +63,75 @@ public final class PolygonPartition {
 		return new Vector2(localPosition);
 	}
 	
+	// The polygon to test for collisions, which covers the whole step if the partition has been swept
+	public final Polygon getCollisionPolygon() {
+		return isSwept ? sweptPolygon : polygon;
+	}
+	
+	public final Rectangle getBoundingBox() {
+		return boundingBox;
+	}
+	
+	public final void updateBoundingBox() {
+		boundingBox.set(getCollisionPolygon().getBoundingRectangle());
+	}
+	
+	// Moves the partition to where it sits on the transformed parent polygon
+	public final void transform(final Polygon parentPolygon) {
+		polygon.setScale(parentPolygon.getScaleX(), parentPolygon.getScaleY());
+		polygon.setRotation(parentPolygon.getRotation());
+		toGlobal(parentPolygon);
+		polygon.setPosition(globalPosition[0], globalPosition[1]);
+		isSwept = false;
+		updateBoundingBox();
+	}
+	
+	// Transforms the local position the same way the parent transforms its vertices, without allocating
+	private void toGlobal(final Polygon parentPolygon) {
+		float originX = parentPolygon.getOriginX();
+		float originY = parentPolygon.getOriginY();
+		float x = (localPosition.x - originX) * parentPolygon.getScaleX();
+		float y = (localPosition.y - originY) * parentPolygon.getScaleY();
+		float cos = MathUtils.cosDeg(parentPolygon.getRotation());
+		float sin = MathUtils.sinDeg(parentPolygon.getRotation());
+		globalPosition[0] = cos * x - sin * y + parentPolygon.getX() + originX;
+		globalPosition[1] = sin * x + cos * y + parentPolygon.getY() + originY;
+	}
+	
+	// Extends the collision polygon back along the offset the partition moved by in the last step.  Since the 
+	// partition is convex and only translated, the hull of its start and end positions covers everything it passed 
+	// through.
+	public final void sweep(final float offsetX, final float offsetY, final ConvexHull convexHull) {
+		isSwept = offsetX != 0 || offsetY != 0;
+		if (isSwept) {
+			float[] vertices = polygon.getTransformedVertices();
+			if (sweptPoints.length != vertices.length * 2) {
+				sweptPoints = new float[vertices.length * 2];
+			}
+			for (int i = 0; i < vertices.length; i += 2) {
+				sweptPoints[i] = vertices[i];
+				sweptPoints[i + 1] = vertices[i + 1];
+				sweptPoints[vertices.length + i] = vertices[i] - offsetX;
+				sweptPoints[vertices.length + i + 1] = vertices[i + 1] - offsetY;
+			}
+			FloatArray hull = convexHull.computePolygon(sweptPoints, false);
+			// The hull is closed by repeating the first point at the end
+			sweptPolygon = getSweptPolygon(hull.size - 2);
+			System.arraycopy(hull.items, 0, sweptPolygon.getVertices(), 0, hull.size - 2);
+			sweptPolygon.dirty();
+		}
+		updateBoundingBox();
+	}
+	
+	private Polygon getSweptPolygon(final int verticesLength) {
+		int vertexCount = verticesLength / 2;
+		if (sweptPolygons.length <= vertexCount) {
+			sweptPolygons = Arrays.copyOf(sweptPolygons, vertexCount + 1);
+		}
+		if (sweptPolygons[vertexCount] == null) {
+			sweptPolygons[vertexCount] = new Polygon(new float[verticesLength]);
+		}
+		return sweptPolygons[vertexCount];
+	}
+	
 }
@@ -0,0 +1,32 @@
+package dc.slideracer.collision;
+
+import com.badlogic.gdx.math.Vector2;
+
+import dclib.epf.Entity;
+
+public final class RaycastHit {
+
+	private final Entity entity;
+	private final float fraction;
+	private final Vector2 point;
+	
+	public RaycastHit(final Entity entity, final float fraction, final Vector2 point) {
+		this.entity = entity;
+		this.fraction = fraction;
+		this.point = point;
+	}
+	
+	public final Entity getEntity() {
+		return entity;
+	}
+	
+	// Distance along the ray to the hit, where 0 is the start and 1 is the end
+	public final float getFraction() {
+		return fraction;
+	}
+	
+	public final Vector2 getPoint() {
+		return point.cpy();
+	}
+	
+}
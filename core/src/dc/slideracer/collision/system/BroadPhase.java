@@ -0,0 +1,14 @@
+package dc.slideracer.collision.system;
+
+import java.util.List;
+
+import dc.slideracer.collision.EntityPair;
+import dclib.epf.Entity;
+
+public interface BroadPhase {
+
+	// Returns the pairs of colliders that could be overlapping and still need a narrow phase check.  The list and its 
+	// pairs are reused by the next call.
+	List<EntityPair> findPairs(final List<Entity> colliders);
+	
+}
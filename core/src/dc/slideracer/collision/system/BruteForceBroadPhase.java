@@ -0,0 +1,23 @@
+package dc.slideracer.collision.system;
+
+import java.util.List;
+
+import dc.slideracer.collision.EntityPair;
+import dclib.epf.Entity;
+
+public final class BruteForceBroadPhase implements BroadPhase {
+
+	private final EntityPairBuffer pairs = new EntityPairBuffer();
+	
+	@Override
+	public final List<EntityPair> findPairs(final List<Entity> colliders) {
+		pairs.clear();
+		for (int i = 0; i < colliders.size(); i++) {
+			for (int j = i + 1; j < colliders.size(); j++) {
+				pairs.add(colliders.get(i), colliders.get(j));
+			}
+		}
+		return pairs.getPairs();
+	}
+
+}
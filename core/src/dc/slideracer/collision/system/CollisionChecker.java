@@ -1,36 +1,62 @@
 package dc.slideracer.collision.system;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-
 import dc.slideracer.collision.CollisionType;
 import dc.slideracer.parts.CollisionPart;
 import dclib.epf.Entity;
 
-// TODO: COmbine this with collision resolver
 public final class CollisionChecker {
 
-	// TODO: create a multimap class?
-	private final Map<CollisionType, Set<CollisionType>> colliderTypeToTargetTypeMap
-		= new HashMap<CollisionType, Set<CollisionType>>();
+	private static final CollisionType[] COLLISION_TYPES = CollisionType.values();
+	
+	// Bit matrix where bit targetType.ordinal() of row colliderType.ordinal() is set if the types are linked
+	private final long[] targetTypeMasks = new long[COLLISION_TYPES.length];
+	
+	static {
+		if (COLLISION_TYPES.length > Long.SIZE) {
+			throw new IllegalStateException("Too many collision types for the collision matrix");
+		}
+	}
 
 	public final void link(final CollisionType colliderType, final CollisionType targetType) {
-		if (!colliderTypeToTargetTypeMap.containsKey(colliderType)) {
-			colliderTypeToTargetTypeMap.put(colliderType, new HashSet<CollisionType>());
+		targetTypeMasks[colliderType.ordinal()] |= 1L << targetType.ordinal();
+	}
+	
+	// Links every pair of types that is linked in the other checker
+	public final void linkAll(final CollisionChecker other) {
+		for (int i = 0; i < targetTypeMasks.length; i++) {
+			targetTypeMasks[i] |= other.targetTypeMasks[i];
 		}
-		colliderTypeToTargetTypeMap.get(colliderType).add(targetType);
+	}
+	
+	public final boolean hasTargets(final CollisionType colliderType) {
+		return targetTypeMasks[colliderType.ordinal()] != 0;
+	}
+	
+	public final boolean canCollide(final CollisionType colliderType, final CollisionType targetType) {
+		return (targetTypeMasks[colliderType.ordinal()] & (1L << targetType.ordinal())) != 0;
 	}
 	
 	public final boolean canCollide(final Entity collider, final Entity target) {
 		if (collider.has(CollisionPart.class) && target.has(CollisionPart.class)) {
 			CollisionType colliderType = collider.get(CollisionPart.class).getCollisionType();
 			CollisionType targetType = target.get(CollisionPart.class).getCollisionType();
-			Set<CollisionType> collisionTargetTypes = colliderTypeToTargetTypeMap.get(colliderType);
-			return collisionTargetTypes != null && collisionTargetTypes.contains(targetType);
+			return canCollide(colliderType, targetType);
 		}
 		return false;
 	}
+	
+	// Returns a checker where the types are linked in both directions if they are linked in either direction
+	public final CollisionChecker symmetric() {
+		CollisionChecker symmetric = new CollisionChecker();
+		for (CollisionType colliderType : COLLISION_TYPES) {
+			for (CollisionType targetType : COLLISION_TYPES) {
+				if (canCollide(colliderType, targetType)) {
+					symmetric.link(colliderType, targetType);
+					symmetric.link(targetType, colliderType);
+				}
+			}
+		}
+		return symmetric;
+	}
 
 }
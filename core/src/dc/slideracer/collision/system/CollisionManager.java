@@ -1,51 +1,248 @@
 package dc.slideracer.collision.system;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import com.badlogic.gdx.math.ConvexHull;
 import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
 
+import dc.slideracer.collision.ContactPhase;
+import dc.slideracer.collision.EntityPair;
+import dc.slideracer.collision.PolygonPartition;
 import dc.slideracer.parts.CollisionPart;
 import dclib.epf.Entity;
+import dclib.epf.parts.TransformPart;
 
 public final class CollisionManager {
 	
+	private final BroadPhase broadPhase;
 	private final CollisionResolver[] collisionResolvers;
+	private final CollisionChecker collisionChecker;
+	private final List<Entity> colliders = new ArrayList<Entity>();
+	private final CollisionStats stats = new CollisionStats();
+	private final ContactCache contactCache = new ContactCache();
+	private final ConvexHull convexHull = new ConvexHull();
+	private boolean isContinuous = false;
+	private final List<EntityPair> narrowPhasePairs = new ArrayList<EntityPair>();
+	// Contact found for the narrow phase pair at the same index, or null if the pair isn't overlapping
+	private Contact[] pairContacts = new Contact[0];
+	private ForkJoinPool pool = null;
+	private int minParallelPairCount = Integer.MAX_VALUE;
 	
 	public CollisionManager(final CollisionResolver... collisionResolvers) {
+		this(new BruteForceBroadPhase(), collisionResolvers);
+	}
+	
+	public CollisionManager(final BroadPhase broadPhase, final CollisionResolver... collisionResolvers) {
+		this.broadPhase = broadPhase;
 		this.collisionResolvers = collisionResolvers;
+		collisionChecker = createCollisionChecker(collisionResolvers);
+	}
+	
+	public final CollisionStats getStats() {
+		return stats;
+	}
+	
+	// In continuous mode, moving colliders are tested along the whole step so fast or long steps can't tunnel 
+	// through thin terrain
+	public final void setContinuous(final boolean isContinuous) {
+		this.isContinuous = isContinuous;
+	}
+
+	// Runs the narrow phase on a work stealing pool when at least minPairCount pairs need testing.  Resolvers are 
+	// still called on this thread, in the same order as the single threaded narrow phase.
+	public final void setParallel(final int minPairCount) {
+		if (pool == null) {
+			pool = new ForkJoinPool();
+		}
+		minParallelPairCount = minPairCount;
+	}
+	
+	// Drops the entity's contacts, e.g. when it is removed from the level
+	public final void remove(final Entity entity) {
+		contactCache.remove(entity);
+	}
+	
+	public final void dispose() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	// Records where the moving colliders are before the step moves them, for continuous mode to sweep back to
+	public final void startStep(final List<Entity> entities) {
+		if (isContinuous) {
+			for (int i = 0; i < entities.size(); i++) {
+				Entity entity = entities.get(i);
+				if (isMoving(entity)) {
+					entity.get(CollisionPart.class).startStep(entity.get(TransformPart.class).getPolygon());
+				}
+			}
+		}
 	}
 
 	public final void checkCollisions(final List<Entity> entities) {
-		for (int i = 0; i < entities.size(); i++) {
-			Entity entity1 = entities.get(i);
-			if (entity1.hasActive(CollisionPart.class)) {
-				for (int j = i + 1; j < entities.size(); j++) {
-					Entity entity2 = entities.get(j);
-					if (entity2.hasActive(CollisionPart.class)) {
-						if (collided(entity1, entity2)) {
-							for (CollisionResolver collisionResolver : collisionResolvers) {
-								collisionResolver.resolve(entity1, entity2);
-								collisionResolver.resolve(entity2, entity1);
-							}
-						}
-					}
+		colliders.clear();
+		for (Entity entity : entities) {
+			if (entity.hasActive(CollisionPart.class) 
+					&& collisionChecker.hasTargets(entity.get(CollisionPart.class).getCollisionType())) {
+				if (isContinuous && isMoving(entity)) {
+					entity.get(CollisionPart.class).sweep(entity.get(TransformPart.class).getPolygon(), convexHull);
+				}
+				colliders.add(entity);
+			}
+		}
+		stats.reset(colliders.size());
+		List<EntityPair> candidatePairs = broadPhase.findPairs(colliders);
+		stats.addCandidatePairs(candidatePairs.size());
+		narrowPhasePairs.clear();
+		for (EntityPair candidatePair : candidatePairs) {
+			if (collisionChecker.canCollide(candidatePair.getFirst(), candidatePair.getSecond())) {
+				narrowPhasePairs.add(candidatePair);
+				stats.incrementNarrowPhaseTests();
+			}
+		}
+		findContacts();
+		for (int i = 0; i < narrowPhasePairs.size(); i++) {
+			Contact contact = pairContacts[i];
+			if (contact != null) {
+				stats.incrementCollisions();
+				ContactPhase phase = contactCache.add(contact);
+				if (phase == ContactPhase.BEGIN) {
+					stats.incrementContactsBegun();
+				}
+				resolve(contact, phase);
+			}
+		}
+		List<Contact> endedContacts = contactCache.update();
+		stats.addContactsEnded(endedContacts.size());
+		for (Contact endedContact : endedContacts) {
+			resolve(endedContact, ContactPhase.END);
+		}
+	}
+	
+	private void findContacts() {
+		int pairCount = narrowPhasePairs.size();
+		if (pairContacts.length < pairCount) {
+			pairContacts = new Contact[pairCount];
+		}
+		if (pool != null && pairCount >= minParallelPairCount) {
+			pool.invoke(new NarrowPhaseTask(0, pairCount));
+		} else {
+			findContacts(0, pairCount, stats);
+		}
+	}
+	
+	private void findContacts(final int start, final int end, final CollisionStats workerStats) {
+		for (int i = start; i < end; i++) {
+			pairContacts[i] = findContact(narrowPhasePairs.get(i), workerStats);
+		}
+	}
+	
+	private void resolve(final Contact contact, final ContactPhase phase) {
+		Entity entity1 = contact.getPair().getFirst();
+		Entity entity2 = contact.getPair().getSecond();
+		for (CollisionResolver collisionResolver : collisionResolvers) {
+			if (collisionResolver.getContactPhases().contains(phase)) {
+				collisionResolver.resolve(entity1, entity2, phase);
+				collisionResolver.resolve(entity2, entity1, phase);
+			}
+		}
+	}
+	
+	private boolean isMoving(final Entity entity) {
+		return entity.has(CollisionPart.class) && !entity.get(CollisionPart.class).isStatic() 
+				&& entity.has(TransformPart.class);
+	}
+	
+	private CollisionChecker createCollisionChecker(final CollisionResolver[] collisionResolvers) {
+		CollisionChecker collisionChecker = new CollisionChecker();
+		for (CollisionResolver collisionResolver : collisionResolvers) {
+			collisionChecker.linkAll(collisionResolver.getCollisionChecker());
+		}
+		// Resolvers are called in both directions, so a pair is needed if either direction is linked
+		return collisionChecker.symmetric();
+	}
+	
+	// Returns the contact between the pair, or null if they aren't overlapping
+	private Contact findContact(final EntityPair pair, final CollisionStats stats) {
+		CollisionPart collisionPart1 = pair.getFirst().get(CollisionPart.class);
+		CollisionPart collisionPart2 = pair.getSecond().get(CollisionPart.class);
+		List<PolygonPartition> partitions1 = collisionPart1.getPartitions();
+		List<PolygonPartition> partitions2 = collisionPart2.getPartitions();
+		if (!collisionPart1.getBoundingBox().overlaps(collisionPart2.getBoundingBox())) {
+			stats.addPartitionPairsRejected(partitions1.size() * partitions2.size());
+			return null;
+		}
+		Contact contact = contactCache.get(pair);
+		if (contact == null) {
+			// The broad phase reuses its pairs, so the contact keeps its own copy
+			contact = new Contact(new EntityPair(pair.getFirst(), pair.getSecond()));
+		} else if (overlaps(contact.getPartition1(), contact.getPartition2(), stats)) {
+			// Pairs in contact on the last step usually still overlap at the same partitions
+			return contact;
+		}
+		for (int i = 0; i < partitions1.size(); i++) {
+			PolygonPartition partition1 = partitions1.get(i);
+			Rectangle boundingBox1 = partition1.getBoundingBox();
+			if (!boundingBox1.overlaps(collisionPart2.getBoundingBox())) {
+				stats.addPartitionPairsRejected(partitions2.size());
+				continue;
+			}
+			for (int j = 0; j < partitions2.size(); j++) {
+				PolygonPartition partition2 = partitions2.get(j);
+				if (overlaps(partition1, partition2, stats)) {
+					contact.setPartitions(partition1, partition2);
+					return contact;
 				}
 			}
 		}
+		return null;
+	}
+	
+	private boolean overlaps(final PolygonPartition partition1, final PolygonPartition partition2, 
+			final CollisionStats stats) {
+		if (!partition1.getBoundingBox().overlaps(partition2.getBoundingBox())) {
+			stats.addPartitionPairsRejected(1);
+			return false;
+		}
+		stats.incrementPartitionPairsTested();
+		return Intersector.overlapConvexPolygons(partition1.getCollisionPolygon(), partition2.getCollisionPolygon());
 	}
 	
-	private boolean collided(final Entity e1, final Entity e2) {
-		List<Polygon> collisionPolygons1 = e1.get(CollisionPart.class).getPolygons();
-		List<Polygon> collisionPolygons2 = e2.get(CollisionPart.class).getPolygons();
-		for (Polygon collisionPolygon1 : collisionPolygons1) {
-			for (Polygon collisionPolygon2 : collisionPolygons2) {
-				if (Intersector.overlapConvexPolygons(collisionPolygon1, collisionPolygon2)) {
-					return true;
+	// Splits the narrow phase pairs until they are small enough to test on one worker.  Each leaf counts into its own 
+	// stats and writes only to its own range of pairContacts, so workers never share state.
+	private final class NarrowPhaseTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		private static final int LEAF_PAIR_COUNT = 64;
+		
+		private final int start;
+		private final int end;
+		
+		public NarrowPhaseTask(final int start, final int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected final void compute() {
+			if (end - start <= LEAF_PAIR_COUNT) {
+				CollisionStats workerStats = new CollisionStats();
+				findContacts(start, end, workerStats);
+				synchronized (stats) {
+					stats.addPartitionPairs(workerStats);
 				}
+			} else {
+				int middle = (start + end) / 2;
+				invokeAll(new NarrowPhaseTask(start, middle), new NarrowPhaseTask(middle, end));
 			}
 		}
-		return false;
+		
 	}
 	
 }
@@ -1,9 +1,18 @@
 package dc.slideracer.collision.system;
 
+import java.util.EnumSet;
+
+import dc.slideracer.collision.ContactPhase;
 import dclib.epf.Entity;
 
 public interface CollisionResolver {
+	
+	// The collider and target types this resolver acts on.  Pairs that no resolver acts on are never tested.
+	CollisionChecker getCollisionChecker();
+	
+	// The contact phases this resolver is called for
+	EnumSet<ContactPhase> getContactPhases();
 
-	void resolve(final Entity e1, final Entity e2);
+	void resolve(final Entity e1, final Entity e2, final ContactPhase phase);
 	
 }
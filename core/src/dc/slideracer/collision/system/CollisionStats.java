@@ -0,0 +1,107 @@
+package dc.slideracer.collision.system;
+
+// Counters for the most recent call to CollisionManager.checkCollisions
+public final class CollisionStats {
+
+	private int colliderCount = 0;
+	private int candidatePairCount = 0;
+	private int narrowPhaseTestCount = 0;
+	private int collisionCount = 0;
+	private int partitionPairsRejectedCount = 0;
+	private int partitionPairsTestedCount = 0;
+	private int contactsBegunCount = 0;
+	private int contactsEndedCount = 0;
+	
+	public final int getColliderCount() {
+		return colliderCount;
+	}
+	
+	public final int getPossiblePairCount() {
+		return colliderCount * (colliderCount - 1) / 2;
+	}
+	
+	public final int getCandidatePairCount() {
+		return candidatePairCount;
+	}
+	
+	public final int getNarrowPhaseTestCount() {
+		return narrowPhaseTestCount;
+	}
+	
+	public final int getCollisionCount() {
+		return collisionCount;
+	}
+	
+	public final int getContactsBegunCount() {
+		return contactsBegunCount;
+	}
+	
+	public final int getContactsEndedCount() {
+		return contactsEndedCount;
+	}
+	
+	// Partition pairs skipped because their bounding boxes don't overlap
+	public final int getPartitionPairsRejectedCount() {
+		return partitionPairsRejectedCount;
+	}
+	
+	// Partition pairs that went through the separating axis test
+	public final int getPartitionPairsTestedCount() {
+		return partitionPairsTestedCount;
+	}
+	
+	@Override
+	public final String toString() {
+		return "colliders: " + colliderCount + ", possible pairs: " + getPossiblePairCount() + ", candidate pairs: " 
+				+ candidatePairCount + ", narrow phase tests: " + narrowPhaseTestCount + ", collisions: " 
+				+ collisionCount + ", partition pairs rejected: " + partitionPairsRejectedCount 
+				+ ", partition pairs tested: " + partitionPairsTestedCount + ", contacts begun: " + contactsBegunCount 
+				+ ", contacts ended: " + contactsEndedCount;
+	}
+	
+	final void reset(final int colliderCount) {
+		this.colliderCount = colliderCount;
+		candidatePairCount = 0;
+		narrowPhaseTestCount = 0;
+		collisionCount = 0;
+		partitionPairsRejectedCount = 0;
+		partitionPairsTestedCount = 0;
+		contactsBegunCount = 0;
+		contactsEndedCount = 0;
+	}
+	
+	final void addCandidatePairs(final int count) {
+		candidatePairCount += count;
+	}
+	
+	final void incrementNarrowPhaseTests() {
+		narrowPhaseTestCount++;
+	}
+	
+	final void incrementCollisions() {
+		collisionCount++;
+	}
+	
+	final void addPartitionPairsRejected(final int count) {
+		partitionPairsRejectedCount += count;
+	}
+	
+	final void incrementPartitionPairsTested() {
+		partitionPairsTestedCount++;
+	}
+	
+	// Adds the partition pair counts from a worker's narrow phase
+	final void addPartitionPairs(final CollisionStats other) {
+		partitionPairsRejectedCount += other.partitionPairsRejectedCount;
+		partitionPairsTestedCount += other.partitionPairsTestedCount;
+	}
+	
+	final void incrementContactsBegun() {
+		contactsBegunCount++;
+	}
+	
+	final void addContactsEnded(final int count) {
+		contactsEndedCount += count;
+	}
+	
+}
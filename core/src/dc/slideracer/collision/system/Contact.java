@@ -0,0 +1,34 @@
+package dc.slideracer.collision.system;
+
+import dc.slideracer.collision.EntityPair;
+import dc.slideracer.collision.PolygonPartition;
+
+public final class Contact {
+
+	private final EntityPair pair;
+	// The partitions that were found overlapping, which are tested first on the next step
+	private PolygonPartition partition1;
+	private PolygonPartition partition2;
+	
+	public Contact(final EntityPair pair) {
+		this.pair = pair;
+	}
+	
+	public final EntityPair getPair() {
+		return pair;
+	}
+	
+	public final PolygonPartition getPartition1() {
+		return partition1;
+	}
+	
+	public final PolygonPartition getPartition2() {
+		return partition2;
+	}
+	
+	final void setPartitions(final PolygonPartition partition1, final PolygonPartition partition2) {
+		this.partition1 = partition1;
+		this.partition2 = partition2;
+	}
+	
+}
@@ -0,0 +1,69 @@
+package dc.slideracer.collision.system;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import dc.slideracer.collision.ContactPhase;
+import dc.slideracer.collision.EntityPair;
+import dclib.epf.Entity;
+
+// Remembers which pairs were in contact on the last step so contacts can be reported as beginning, persisting or 
+// ending
+public final class ContactCache {
+
+	private Map<EntityPair, Contact> contacts = new HashMap<EntityPair, Contact>();
+	private Map<EntityPair, Contact> currentContacts = new HashMap<EntityPair, Contact>();
+	private final List<Contact> endedContacts = new ArrayList<Contact>();
+	
+	// Returns the contact from the last step, or null if the pair wasn't in contact
+	public final Contact get(final EntityPair pair) {
+		return contacts.get(pair);
+	}
+	
+	public final ContactPhase add(final Contact contact) {
+		currentContacts.put(contact.getPair(), contact);
+		return contacts.containsKey(contact.getPair()) ? ContactPhase.PERSIST : ContactPhase.BEGIN;
+	}
+	
+	// Finishes the step and returns the contacts from the last step that weren't added again
+	public final List<Contact> update() {
+		endedContacts.clear();
+		for (Contact contact : contacts.values()) {
+			if (!currentContacts.containsKey(contact.getPair())) {
+				endedContacts.add(contact);
+			}
+		}
+		Map<EntityPair, Contact> oldContacts = contacts;
+		contacts = currentContacts;
+		currentContacts = oldContacts;
+		currentContacts.clear();
+		return endedContacts;
+	}
+	
+	// Forgets the entity's contacts without ending them, so a removed entity gets no END and a recycled one begins 
+	// its next contacts afresh
+	public final void remove(final Entity entity) {
+		remove(contacts, entity);
+		remove(currentContacts, entity);
+	}
+	
+	public final void clear() {
+		contacts.clear();
+		currentContacts.clear();
+		endedContacts.clear();
+	}
+	
+	private void remove(final Map<EntityPair, Contact> contacts, final Entity entity) {
+		Iterator<EntityPair> iterator = contacts.keySet().iterator();
+		while (iterator.hasNext()) {
+			EntityPair pair = iterator.next();
+			if (pair.getFirst() == entity || pair.getSecond() == entity) {
+				iterator.remove();
+			}
+		}
+	}
+	
+}
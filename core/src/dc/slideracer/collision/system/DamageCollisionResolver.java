@@ -1,11 +1,17 @@
 package dc.slideracer.collision.system;
 
+import java.util.EnumSet;
+
+import dc.slideracer.collision.ContactPhase;
 import dc.slideracer.parts.DamageOnCollisionPart;
 import dclib.epf.Entity;
 import dclib.epf.parts.HealthPart;
 
 public class DamageCollisionResolver implements CollisionResolver {
 
+	// Damage is only dealt once per contact rather than on every step of it
+	private static final EnumSet<ContactPhase> CONTACT_PHASES = EnumSet.of(ContactPhase.BEGIN);
+	
 	private final CollisionChecker collisionChecker;
 	
 	public DamageCollisionResolver(final CollisionChecker collisionChecker) {
@@ -13,7 +19,17 @@ public class DamageCollisionResolver implements CollisionResolver {
 	}
 	
 	@Override
-	public final void resolve(final Entity collider, final Entity target) {
+	public final CollisionChecker getCollisionChecker() {
+		return collisionChecker;
+	}
+	
+	@Override
+	public final EnumSet<ContactPhase> getContactPhases() {
+		return CONTACT_PHASES;
+	}
+	
+	@Override
+	public final void resolve(final Entity collider, final Entity target, final ContactPhase phase) {
 		if (collider.has(DamageOnCollisionPart.class) && target.has(HealthPart.class)) {
 			if (collisionChecker.canCollide(collider, target)) {
 				float damage = collider.get(DamageOnCollisionPart.class).getDamage();
@@ -0,0 +1,32 @@
+package dc.slideracer.collision.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dc.slideracer.collision.EntityPair;
+import dclib.epf.Entity;
+
+// Hands out the same pair objects every step, so the broad phase doesn't allocate a pair per candidate
+final class EntityPairBuffer {
+
+	private final List<EntityPair> pairs = new ArrayList<EntityPair>();
+	private final List<EntityPair> allPairs = new ArrayList<EntityPair>();
+	
+	public final List<EntityPair> getPairs() {
+		return pairs;
+	}
+	
+	public final void clear() {
+		pairs.clear();
+	}
+	
+	public final void add(final Entity first, final Entity second) {
+		if (pairs.size() == allPairs.size()) {
+			allPairs.add(new EntityPair(first, second));
+		}
+		EntityPair pair = allPairs.get(pairs.size());
+		pair.set(first, second);
+		pairs.add(pair);
+	}
+	
+}
@@ -0,0 +1,92 @@
+package dc.slideracer.collision.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.badlogic.gdx.utils.LongMap;
+
+import dc.slideracer.collision.EntityPair;
+import dc.slideracer.parts.CollisionPart;
+import dclib.epf.Entity;
+
+public final class SpatialHashBroadPhase implements BroadPhase {
+
+	private final float cellSize;
+	// Collider indexes in each occupied cell.  Cells are emptied and kept for reuse rather than thrown away.
+	private final LongMap<IntArray> cells = new LongMap<IntArray>();
+	private final LongArray occupiedCellKeys = new LongArray();
+	private final List<IntArray> freeCells = new ArrayList<IntArray>();
+	private final List<Rectangle> boundingBoxes = new ArrayList<Rectangle>();
+	private final EntityPairBuffer pairs = new EntityPairBuffer();
+	
+	public SpatialHashBroadPhase(final float cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+		}
+		this.cellSize = cellSize;
+	}
+	
+	@Override
+	public final List<EntityPair> findPairs(final List<Entity> colliders) {
+		clearCells();
+		boundingBoxes.clear();
+		pairs.clear();
+		for (int i = 0; i < colliders.size(); i++) {
+			Rectangle boundingBox = colliders.get(i).get(CollisionPart.class).getBoundingBox();
+			boundingBoxes.add(boundingBox);
+			for (int cellX = toCell(boundingBox.x); cellX <= toCell(boundingBox.x + boundingBox.width); cellX++) {
+				for (int cellY = toCell(boundingBox.y); cellY <= toCell(boundingBox.y + boundingBox.height); cellY++) {
+					IntArray cell = getCell(cellX, cellY);
+					for (int j = 0; j < cell.size; j++) {
+						int otherIndex = cell.get(j);
+						if (isOwnerCell(cellX, cellY, boundingBox, boundingBoxes.get(otherIndex))) {
+							pairs.add(colliders.get(otherIndex), colliders.get(i));
+						}
+					}
+					cell.add(i);
+				}
+			}
+		}
+		return pairs.getPairs();
+	}
+	
+	private void clearCells() {
+		for (int i = 0; i < occupiedCellKeys.size; i++) {
+			IntArray cell = cells.remove(occupiedCellKeys.get(i));
+			cell.clear();
+			freeCells.add(cell);
+		}
+		occupiedCellKeys.clear();
+	}
+	
+	private IntArray getCell(final int cellX, final int cellY) {
+		long key = ((long)cellX << 32) | (cellY & 0xffffffffL);
+		IntArray cell = cells.get(key);
+		if (cell == null) {
+			cell = freeCells.isEmpty() ? new IntArray() : freeCells.remove(freeCells.size() - 1);
+			cells.put(key, cell);
+			occupiedCellKeys.add(key);
+		}
+		return cell;
+	}
+	
+	// Two boxes can share many cells, so the pair is only reported from the cell holding the bottom left corner of 
+	// their overlap.  This also drops pairs whose boxes share a cell but don't overlap.
+	private boolean isOwnerCell(final int cellX, final int cellY, final Rectangle box1, final Rectangle box2) {
+		if (!box1.overlaps(box2)) {
+			return false;
+		}
+		float overlapX = Math.max(box1.x, box2.x);
+		float overlapY = Math.max(box1.y, box2.y);
+		return toCell(overlapX) == cellX && toCell(overlapY) == cellY;
+	}
+	
+	private int toCell(final float value) {
+		return MathUtils.floor(value / cellSize);
+	}
+
+}
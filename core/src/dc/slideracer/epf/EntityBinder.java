@@ -0,0 +1,13 @@
+package dc.slideracer.epf;
+
+import dclib.epf.Entity;
+
+// Decides which entities a query matches and resolves the parts a system needs from them.  An entity is only matched 
+// when it is added, so matches should only check which parts it has.  Anything that can change later, such as 
+// whether a part is active, has to be checked by the system when it updates.
+public interface EntityBinder<T> {
+
+	boolean matches(final Entity entity);
+	T bind(final Entity entity);
+	
+}
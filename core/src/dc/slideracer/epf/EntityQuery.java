@@ -0,0 +1,84 @@
+package dc.slideracer.epf;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import dclib.epf.Entity;
+import dclib.epf.EntityAddedListener;
+import dclib.epf.EntityManager;
+import dclib.epf.EntityRemovedListener;
+
+// Live list of views of the entities a binder matches, kept up to date through the entity manager's listeners.  An 
+// entity is matched when it is added, so parts attached or deactivated afterwards aren't picked up.  Views are 
+// removed by swapping the last one into their place, so the order of the views isn't the order they were added in.
+public final class EntityQuery<T> {
+
+	private final EntityBinder<T> binder;
+	private final List<T> views = new ArrayList<T>();
+	// The entity of each view, at the same index
+	private final List<Entity> viewEntities = new ArrayList<Entity>();
+	private final Map<Entity, Integer> viewIndices = new IdentityHashMap<Entity, Integer>();
+	
+	public EntityQuery(final EntityManager entityManager, final EntityBinder<T> binder) {
+		this.binder = binder;
+		for (Entity entity : entityManager.getAll()) {
+			add(entity);
+		}
+		entityManager.addEntityAddedListener(entityAdded());
+		entityManager.addEntityRemovedListener(entityRemoved());
+	}
+	
+	// The list is live, so it must not be modified, and it changes as entities are added and removed
+	public final List<T> getViews() {
+		return views;
+	}
+	
+	public final int size() {
+		return views.size();
+	}
+	
+	private EntityAddedListener entityAdded() {
+		return new EntityAddedListener() {
+			@Override
+			public void created(final Entity entity) {
+				add(entity);
+			}
+		};
+	}
+	
+	private EntityRemovedListener entityRemoved() {
+		return new EntityRemovedListener() {
+			@Override
+			public void removed(final Entity entity) {
+				remove(entity);
+			}
+		};
+	}
+	
+	private void add(final Entity entity) {
+		if (!viewIndices.containsKey(entity) && binder.matches(entity)) {
+			viewIndices.put(entity, views.size());
+			views.add(binder.bind(entity));
+			viewEntities.add(entity);
+		}
+	}
+	
+	private void remove(final Entity entity) {
+		Integer index = viewIndices.remove(entity);
+		if (index == null) {
+			return;
+		}
+		int lastIndex = views.size() - 1;
+		if (index != lastIndex) {
+			Entity lastEntity = viewEntities.get(lastIndex);
+			views.set(index, views.get(lastIndex));
+			viewEntities.set(index, lastEntity);
+			viewIndices.put(lastEntity, index);
+		}
+		views.remove(lastIndex);
+		viewEntities.remove(lastIndex);
+	}
+	
+}
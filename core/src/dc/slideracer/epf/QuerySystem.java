@@ -0,0 +1,24 @@
+package dc.slideracer.epf;
+
+import java.util.List;
+
+// Updates only the entities matched by its query, using the parts resolved when they were added
+public abstract class QuerySystem<T> {
+
+	private final EntityQuery<T> query;
+	
+	public QuerySystem(final EntityQuery<T> query) {
+		this.query = query;
+	}
+	
+	public final void update(final float delta) {
+		List<T> views = query.getViews();
+		// Indexed, since updating can add entities to the query
+		for (int i = 0; i < views.size(); i++) {
+			update(delta, views.get(i));
+		}
+	}
+	
+	protected abstract void update(final float delta, final T view);
+	
+}
@@ -0,0 +1,63 @@
+package dc.slideracer.epf;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+// The parts a system reads and writes, which the scheduler uses to decide which systems can run at the same time.  
+// Other state shared between systems can be declared by its class in the same way.
+public final class SystemAccess {
+
+	private final Set<Class<?>> readParts = new HashSet<Class<?>>();
+	private final Set<Class<?>> writtenParts = new HashSet<Class<?>>();
+	// Exclusive systems change more than their entity's parts, e.g. by adding or removing entities
+	private boolean isExclusive = false;
+	// Per entity systems only touch the entity they are updating, so the entities can be split between threads
+	private boolean isPerEntity = false;
+	
+	public final SystemAccess reads(final Class<?>... partClasses) {
+		Collections.addAll(readParts, partClasses);
+		return this;
+	}
+	
+	public final SystemAccess writes(final Class<?>... partClasses) {
+		Collections.addAll(writtenParts, partClasses);
+		return this;
+	}
+	
+	public final SystemAccess exclusive() {
+		isExclusive = true;
+		return this;
+	}
+	
+	public final SystemAccess perEntity() {
+		isPerEntity = true;
+		return this;
+	}
+	
+	public final boolean isExclusive() {
+		return isExclusive;
+	}
+	
+	public final boolean isPerEntity() {
+		return isPerEntity && !isExclusive;
+	}
+	
+	public final boolean conflicts(final SystemAccess other) {
+		if (isExclusive || other.isExclusive) {
+			return true;
+		}
+		return intersects(writtenParts, other.readParts) || intersects(writtenParts, other.writtenParts) 
+				|| intersects(readParts, other.writtenParts);
+	}
+	
+	private boolean intersects(final Set<Class<?>> parts1, final Set<Class<?>> parts2) {
+		for (Class<?> part : parts1) {
+			if (parts2.contains(part)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+}
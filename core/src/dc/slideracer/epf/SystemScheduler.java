@@ -0,0 +1,201 @@
+package dc.slideracer.epf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import dc.slideracer.profiling.FrameProfiler;
+import dclib.epf.Entity;
+import dclib.epf.EntityManager;
+import dclib.epf.EntitySystem;
+
+// Runs entity systems over every entity in the order they were added.  Consecutive systems that don't conflict are 
+// grouped into stages, and with a worker pool a stage's systems, and chunks of the entities for per entity systems, 
+// run at the same time.  Without a pool the stages run one system after another.  Nothing checks that a system only 
+// touches what its access declares, so a parallel run only matches a single threaded one if every declaration is 
+// complete, including any state shared through objects the systems were constructed with.
+public final class SystemScheduler {
+
+	private static final int MIN_CHUNK_SIZE = 64;
+	
+	private final EntityManager entityManager;
+	private final FrameProfiler profiler;
+	private final List<List<ScheduledSystem>> stages = new ArrayList<List<ScheduledSystem>>();
+	private final List<Entity> entities = new ArrayList<Entity>();
+	private final List<SystemTask> tasks = new ArrayList<SystemTask>();
+	private final StageTask stageTask = new StageTask();
+	private ForkJoinPool pool = null;
+	private int workerCount = 1;
+	
+	public SystemScheduler(final EntityManager entityManager, final FrameProfiler profiler) {
+		this.entityManager = entityManager;
+		this.profiler = profiler;
+	}
+	
+	public final void add(final EntitySystem system, final SystemAccess access) {
+		ScheduledSystem scheduledSystem = new ScheduledSystem(system, access, 
+				profiler.addPhase(system.getClass().getSimpleName()));
+		createTasks(scheduledSystem);
+		List<ScheduledSystem> lastStage = stages.isEmpty() ? null : stages.get(stages.size() - 1);
+		if (lastStage == null || conflicts(lastStage, access)) {
+			lastStage = new ArrayList<ScheduledSystem>();
+			stages.add(lastStage);
+		}
+		lastStage.add(scheduledSystem);
+	}
+	
+	public final int getStageCount() {
+		return stages.size();
+	}
+	
+	public final void setParallel(final int workerCount) {
+		dispose();
+		if (workerCount > 1) {
+			pool = new ForkJoinPool(workerCount);
+			this.workerCount = workerCount;
+		}
+		for (List<ScheduledSystem> stage : stages) {
+			for (ScheduledSystem scheduledSystem : stage) {
+				createTasks(scheduledSystem);
+			}
+		}
+	}
+	
+	public final void setSingleThreaded() {
+		dispose();
+	}
+	
+	public final void dispose() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+		workerCount = 1;
+	}
+	
+	public final void update(final float delta) {
+		for (List<ScheduledSystem> stage : stages) {
+			// Taken again for each stage, since exclusive systems can add and remove entities
+			entities.clear();
+			entities.addAll(entityManager.getAll());
+			if (pool == null || !isParallel(stage)) {
+				for (ScheduledSystem scheduledSystem : stage) {
+					long startTime = System.nanoTime();
+					for (int i = 0; i < entities.size(); i++) {
+						scheduledSystem.system.update(delta, entities.get(i));
+					}
+					profiler.addTime(scheduledSystem.phase, System.nanoTime() - startTime);
+				}
+			} else {
+				updateParallel(delta, stage);
+			}
+		}
+	}
+	
+	private boolean conflicts(final List<ScheduledSystem> stage, final SystemAccess access) {
+		for (ScheduledSystem scheduledSystem : stage) {
+			if (scheduledSystem.access.conflicts(access)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	// Below a chunk's worth of entities, handing systems to the workers costs more than running them here
+	private boolean isParallel(final List<ScheduledSystem> stage) {
+		if (stage.size() > 1) {
+			return entities.size() >= MIN_CHUNK_SIZE;
+		}
+		return stage.get(0).access.isPerEntity() && entities.size() >= MIN_CHUNK_SIZE * 2;
+	}
+	
+	// Tasks are created up front, one for each chunk a system can be split into, and reused every step
+	private void createTasks(final ScheduledSystem scheduledSystem) {
+		scheduledSystem.tasks.clear();
+		int taskCount = scheduledSystem.access.isPerEntity() ? workerCount : 1;
+		for (int i = 0; i < taskCount; i++) {
+			scheduledSystem.tasks.add(new SystemTask(scheduledSystem));
+		}
+	}
+	
+	private void updateParallel(final float delta, final List<ScheduledSystem> stage) {
+		tasks.clear();
+		for (ScheduledSystem scheduledSystem : stage) {
+			int chunkCount = 1;
+			if (scheduledSystem.access.isPerEntity()) {
+				chunkCount = Math.max(Math.min(entities.size() / MIN_CHUNK_SIZE, workerCount), 1);
+			}
+			for (int i = 0; i < chunkCount; i++) {
+				SystemTask task = scheduledSystem.tasks.get(i);
+				task.reinitialize();
+				task.set(delta, entities.size() * i / chunkCount, entities.size() * (i + 1) / chunkCount);
+				tasks.add(task);
+			}
+		}
+		stageTask.reinitialize();
+		pool.invoke(stageTask);
+		// Times are added on this thread, as the sum of each system's task times
+		for (SystemTask task : tasks) {
+			profiler.addTime(task.scheduledSystem.phase, task.time);
+		}
+	}
+	
+	private static final class ScheduledSystem {
+		
+		private final EntitySystem system;
+		private final SystemAccess access;
+		private final int phase;
+		private final List<SystemTask> tasks = new ArrayList<SystemTask>();
+		
+		public ScheduledSystem(final EntitySystem system, final SystemAccess access, final int phase) {
+			this.system = system;
+			this.access = access;
+			this.phase = phase;
+		}
+		
+	}
+	
+	private final class StageTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected final void compute() {
+			invokeAll(tasks);
+		}
+		
+	}
+	
+	private final class SystemTask extends RecursiveAction {
+		
+		private static final long serialVersionUID = 1L;
+		
+		private final ScheduledSystem scheduledSystem;
+		private float delta;
+		private int start;
+		private int end;
+		private long time;
+		
+		public SystemTask(final ScheduledSystem scheduledSystem) {
+			this.scheduledSystem = scheduledSystem;
+		}
+		
+		public final void set(final float delta, final int start, final int end) {
+			this.delta = delta;
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected final void compute() {
+			long startTime = System.nanoTime();
+			for (int i = start; i < end; i++) {
+				scheduledSystem.system.update(delta, entities.get(i));
+			}
+			time = System.nanoTime() - startTime;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,72 @@
+package dc.slideracer.epf.graphics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+
+import dc.slideracer.parts.CollisionPart;
+import dclib.epf.Entity;
+import dclib.epf.parts.ParticlesPart;
+import dclib.epf.parts.TransformPart;
+import dclib.graphics.CameraUtils;
+
+// Picks out the entities whose bounds overlap the camera's view, so drawers don't submit the ones off screen
+public final class EntityCuller {
+
+	private final Camera camera;
+	private final float pixelsPerUnit;
+	// Sprites can be drawn up to a step away from their polygons, so the view is grown a little
+	private final float margin;
+	private final Rectangle cullBounds = new Rectangle();
+	private final List<Entity> visibleEntities = new ArrayList<Entity>();
+	private int culledCount = 0;
+	
+	public EntityCuller(final Camera camera, final float pixelsPerUnit, final float margin) {
+		this.camera = camera;
+		this.pixelsPerUnit = pixelsPerUnit;
+		this.margin = margin;
+	}
+	
+	public final int getCulledCount() {
+		return culledCount;
+	}
+	
+	// The returned list is reused by the next call
+	public final List<Entity> cull(final List<Entity> entities) {
+		Rectangle viewport = CameraUtils.getViewport(camera, pixelsPerUnit);
+		cullBounds.set(viewport.x - margin, viewport.y - margin, viewport.width + margin * 2, 
+				viewport.height + margin * 2);
+		visibleEntities.clear();
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = entities.get(i);
+			if (isVisible(entity)) {
+				visibleEntities.add(entity);
+			}
+		}
+		culledCount = entities.size() - visibleEntities.size();
+		return visibleEntities;
+	}
+	
+	private boolean isVisible(final Entity entity) {
+		// Entities without a transform, such as frag clouds, aren't culled, and neither are ones with particles, which 
+		// are drawn well outside their polygons
+		if (!entity.has(TransformPart.class) || entity.has(ParticlesPart.class)) {
+			return true;
+		}
+		Polygon polygon = entity.get(TransformPart.class).getPolygon();
+		if (entity.has(CollisionPart.class)) {
+			// Colliders keep their bounds from the last step, swept back to where the step started, so they also 
+			// cover where the sprite is interpolated to
+			CollisionPart collisionPart = entity.get(CollisionPart.class);
+			if (!collisionPart.isDirty(polygon)) {
+				return collisionPart.getBoundingBox().overlaps(cullBounds);
+			}
+		}
+		// Rescans the transformed vertices, but only the few entities without an up to date collider get here
+		return polygon.getBoundingRectangle().overlaps(cullBounds);
+	}
+	
+}
@@ -0,0 +1,95 @@
+package dc.slideracer.epf.graphics;
+
+import java.util.List;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+
+import dc.slideracer.parts.FragCloudPart;
+import dclib.epf.Entity;
+import dclib.epf.graphics.EntityDrawer;
+
+// Draws every frag of a cloud as a quad in one batch call
+public final class FragCloudDrawer implements EntityDrawer {
+
+	// x, y, color, u and v for each of the 4 corners
+	private static final int QUAD_SIZE = 20;
+	
+	private final PolygonSpriteBatch spriteBatch;
+	private final Camera camera;
+	private final float pixelsPerUnit;
+	private float[] quadsVertices = new float[0];
+	
+	public FragCloudDrawer(final PolygonSpriteBatch spriteBatch, final Camera camera, final float pixelsPerUnit) {
+		this.spriteBatch = spriteBatch;
+		this.camera = camera;
+		this.pixelsPerUnit = pixelsPerUnit;
+	}
+	
+	@Override
+	public final void draw(final List<Entity> entities) {
+		// Most frames have no clouds, and an empty begin and end still binds the shader and sets the render state
+		if (!hasFragClouds(entities)) {
+			return;
+		}
+		spriteBatch.setProjectionMatrix(camera.combined);
+		spriteBatch.begin();
+		for (Entity entity : entities) {
+			if (entity.hasActive(FragCloudPart.class)) {
+				draw(entity.get(FragCloudPart.class));
+			}
+		}
+		spriteBatch.end();
+	}
+	
+	private boolean hasFragClouds(final List<Entity> entities) {
+		for (Entity entity : entities) {
+			if (entity.hasActive(FragCloudPart.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private void draw(final FragCloudPart fragCloudPart) {
+		int count = fragCloudPart.getFragCount() * QUAD_SIZE;
+		if (quadsVertices.length < count) {
+			quadsVertices = new float[count];
+		}
+		float[] positions = fragCloudPart.getPositions();
+		float[] sizes = fragCloudPart.getSizes();
+		float[] uvs = fragCloudPart.getUvs();
+		float cos = MathUtils.cosDeg(fragCloudPart.getRotation());
+		float sin = MathUtils.sinDeg(fragCloudPart.getRotation());
+		float color = Color.toFloatBits(1, 1, 1, fragCloudPart.getAlpha());
+		for (int i = 0; i < fragCloudPart.getFragCount(); i++) {
+			float x = positions[i * 2] * pixelsPerUnit;
+			float y = positions[i * 2 + 1] * pixelsPerUnit;
+			float width = sizes[i * 2] * pixelsPerUnit;
+			float height = sizes[i * 2 + 1] * pixelsPerUnit;
+			float u = uvs[i * 4];
+			float v = uvs[i * 4 + 1];
+			float u2 = uvs[i * 4 + 2];
+			float v2 = uvs[i * 4 + 3];
+			int offset = i * QUAD_SIZE;
+			// Corners go bottom left, top left, top right, bottom right, as in a sprite
+			setCorner(offset, x, y, color, u, v2);
+			setCorner(offset + 5, x - height * sin, y + height * cos, color, u, v);
+			setCorner(offset + 10, x + width * cos - height * sin, y + width * sin + height * cos, color, u2, v);
+			setCorner(offset + 15, x + width * cos, y + width * sin, color, u2, v2);
+		}
+		spriteBatch.draw(fragCloudPart.getTexture(), quadsVertices, 0, count);
+	}
+	
+	private void setCorner(final int offset, final float x, final float y, final float color, final float u, 
+			final float v) {
+		quadsVertices[offset] = x;
+		quadsVertices[offset + 1] = y;
+		quadsVertices[offset + 2] = color;
+		quadsVertices[offset + 3] = u;
+		quadsVertices[offset + 4] = v;
+	}
+
+}
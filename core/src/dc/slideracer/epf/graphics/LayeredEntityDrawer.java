@@ -0,0 +1,90 @@
+package dc.slideracer.epf.graphics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import dc.slideracer.parts.FragCloudPart;
+import dclib.epf.Entity;
+import dclib.epf.graphics.EntityDrawer;
+import dclib.epf.parts.TransformPart;
+
+// Draws sprites and frag clouds in z order.  Frag clouds have no transform, so the sprite drawer can't order them,
+// and the sprites are drawn in one pass for each z that has clouds, with the clouds after the sprites at their z.
+public final class LayeredEntityDrawer implements EntityDrawer {
+
+	private static final Comparator<Entity> CLOUD_Z_COMPARATOR = new Comparator<Entity>() {
+		@Override
+		public int compare(final Entity cloud1, final Entity cloud2) {
+			return Float.compare(cloud1.get(FragCloudPart.class).getZ(), cloud2.get(FragCloudPart.class).getZ());
+		}
+	};
+	
+	private final EntityDrawer spriteDrawer;
+	private final EntityDrawer fragCloudDrawer;
+	private final List<Entity> clouds = new ArrayList<Entity>();
+	private final List<Entity> layerClouds = new ArrayList<Entity>();
+	private final List<Entity> layerEntities = new ArrayList<Entity>();
+	
+	public LayeredEntityDrawer(final EntityDrawer spriteDrawer, final EntityDrawer fragCloudDrawer) {
+		this.spriteDrawer = spriteDrawer;
+		this.fragCloudDrawer = fragCloudDrawer;
+	}
+	
+	@Override
+	public final void draw(final List<Entity> entities) {
+		clouds.clear();
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = entities.get(i);
+			if (entity.hasActive(FragCloudPart.class)) {
+				clouds.add(entity);
+			}
+		}
+		// Most frames have no clouds, so the sprites are drawn in a single pass
+		if (clouds.isEmpty()) {
+			spriteDrawer.draw(entities);
+			return;
+		}
+		Collections.sort(clouds, CLOUD_Z_COMPARATOR);
+		float previousZ = Float.NEGATIVE_INFINITY;
+		int cloudIndex = 0;
+		while (cloudIndex < clouds.size()) {
+			float z = clouds.get(cloudIndex).get(FragCloudPart.class).getZ();
+			layerEntities.clear();
+			for (int i = 0; i < entities.size(); i++) {
+				Entity entity = entities.get(i);
+				if (entity.has(TransformPart.class)) {
+					float entityZ = entity.get(TransformPart.class).getZ();
+					if (entityZ > previousZ && entityZ <= z) {
+						layerEntities.add(entity);
+					}
+				}
+			}
+			drawSprites();
+			layerClouds.clear();
+			while (cloudIndex < clouds.size() && clouds.get(cloudIndex).get(FragCloudPart.class).getZ() == z) {
+				layerClouds.add(clouds.get(cloudIndex));
+				cloudIndex++;
+			}
+			fragCloudDrawer.draw(layerClouds);
+			previousZ = z;
+		}
+		layerEntities.clear();
+		for (int i = 0; i < entities.size(); i++) {
+			Entity entity = entities.get(i);
+			if (entity.has(TransformPart.class) && entity.get(TransformPart.class).getZ() > previousZ) {
+				layerEntities.add(entity);
+			}
+		}
+		drawSprites();
+	}
+	
+	// Skips empty layers, which would still open and close the batch
+	private void drawSprites() {
+		if (!layerEntities.isEmpty()) {
+			spriteDrawer.draw(layerEntities);
+		}
+	}
+
+}
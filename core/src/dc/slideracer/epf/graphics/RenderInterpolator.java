@@ -0,0 +1,96 @@
+package dc.slideracer.epf.graphics;
+
+import java.util.List;
+
+import com.badlogic.gdx.graphics.g2d.PolygonSprite;
+import com.badlogic.gdx.math.Polygon;
+
+import dc.slideracer.epf.EntityBinder;
+import dc.slideracer.epf.EntityQuery;
+import dclib.epf.Entity;
+import dclib.epf.EntityManager;
+import dclib.epf.parts.DrawablePart;
+import dclib.epf.parts.TransformPart;
+import dclib.epf.parts.TranslatePart;
+
+// Shifts the sprites of moving entities to between their positions at the last two simulation steps, so motion is 
+// smooth when the simulation steps at a different rate to drawing
+public final class RenderInterpolator {
+
+	private final EntityQuery<Mover> query;
+	private final float pixelsPerUnit;
+	
+	public RenderInterpolator(final EntityManager entityManager, final float pixelsPerUnit) {
+		query = new EntityQuery<Mover>(entityManager, binder());
+		this.pixelsPerUnit = pixelsPerUnit;
+	}
+	
+	// Call before each step
+	public final void savePositions() {
+		List<Mover> movers = query.getViews();
+		for (int i = 0; i < movers.size(); i++) {
+			Mover mover = movers.get(i);
+			Polygon polygon = mover.transformPart.getPolygon();
+			mover.previousX = polygon.getX();
+			mover.previousY = polygon.getY();
+		}
+	}
+	
+	// Call before drawing, with how far it is from the last step to the next step
+	public final void apply(final float alpha) {
+		List<Mover> movers = query.getViews();
+		for (int i = 0; i < movers.size(); i++) {
+			Mover mover = movers.get(i);
+			Polygon polygon = mover.transformPart.getPolygon();
+			mover.offsetX = (mover.previousX - polygon.getX()) * (1 - alpha) * pixelsPerUnit;
+			mover.offsetY = (mover.previousY - polygon.getY()) * (1 - alpha) * pixelsPerUnit;
+			mover.sprite.translate(mover.offsetX, mover.offsetY);
+		}
+	}
+	
+	// Call after drawing, to put the sprites back where the simulation has them
+	public final void restore() {
+		List<Mover> movers = query.getViews();
+		for (int i = 0; i < movers.size(); i++) {
+			Mover mover = movers.get(i);
+			mover.sprite.translate(-mover.offsetX, -mover.offsetY);
+			mover.offsetX = 0;
+			mover.offsetY = 0;
+		}
+	}
+	
+	private static EntityBinder<Mover> binder() {
+		return new EntityBinder<Mover>() {
+			@Override
+			public boolean matches(final Entity entity) {
+				return entity.has(TranslatePart.class) && entity.has(TransformPart.class) 
+						&& entity.has(DrawablePart.class);
+			}
+			
+			@Override
+			public Mover bind(final Entity entity) {
+				return new Mover(entity.get(TransformPart.class), entity.get(DrawablePart.class).getSprite());
+			}
+		};
+	}
+	
+	static final class Mover {
+		
+		private final TransformPart transformPart;
+		private final PolygonSprite sprite;
+		private float previousX;
+		private float previousY;
+		private float offsetX = 0;
+		private float offsetY = 0;
+		
+		public Mover(final TransformPart transformPart, final PolygonSprite sprite) {
+			this.transformPart = transformPart;
+			this.sprite = sprite;
+			// Until the next step, it is drawn where it was added
+			previousX = transformPart.getPolygon().getX();
+			previousY = transformPart.getPolygon().getY();
+		}
+		
+	}
+	
+}
@@ -1,32 +1,53 @@
 package dc.slideracer.epf.systems;
 
-import java.util.List;
-
 import com.badlogic.gdx.math.Polygon;
-import com.badlogic.gdx.math.Vector2;
 
-import dc.slideracer.collision.PolygonPartition;
+import dc.slideracer.epf.EntityBinder;
+import dc.slideracer.epf.EntityQuery;
+import dc.slideracer.epf.QuerySystem;
 import dc.slideracer.parts.CollisionPart;
 import dclib.epf.Entity;
-import dclib.epf.EntitySystem;
+import dclib.epf.EntityManager;
 import dclib.epf.parts.TransformPart;
-import dclib.geometry.PolygonUtils;
 
-public final class CollisionSystem extends EntitySystem {
+public final class CollisionSystem extends QuerySystem<CollisionSystem.Collider> {
 
+	public CollisionSystem(final EntityManager entityManager) {
+		super(new EntityQuery<Collider>(entityManager, binder()));
+	}
+	
 	@Override
-	public final void update(final float delta, final Entity entity) {
-		if (entity.has(CollisionPart.class)) {
-			Polygon polygon = entity.get(TransformPart.class).getPolygon();
-			List<PolygonPartition> partitions = entity.get(CollisionPart.class).getPartitions();
-			for (PolygonPartition partition : partitions) {
-				Polygon partitionPolygon = partition.getPolygon();
-				partitionPolygon.setScale(polygon.getScaleX(), polygon.getScaleY());
-				partitionPolygon.setRotation(polygon.getRotation());
-				Vector2 globalPosition = PolygonUtils.toGlobal(partition.getLocalPosition(), polygon);
-				partitionPolygon.setPosition(globalPosition.x, globalPosition.y);
+	protected final void update(final float delta, final Collider collider) {
+		Polygon polygon = collider.transformPart.getPolygon();
+		if (collider.collisionPart.isDirty(polygon)) {
+			collider.collisionPart.transform(polygon);
+		}
+	}
+	
+	private static EntityBinder<Collider> binder() {
+		return new EntityBinder<Collider>() {
+			@Override
+			public boolean matches(final Entity entity) {
+				return entity.has(CollisionPart.class) && entity.has(TransformPart.class);
+			}
+			
+			@Override
+			public Collider bind(final Entity entity) {
+				return new Collider(entity.get(TransformPart.class), entity.get(CollisionPart.class));
 			}
+		};
+	}
+	
+	static final class Collider {
+		
+		private final TransformPart transformPart;
+		private final CollisionPart collisionPart;
+		
+		public Collider(final TransformPart transformPart, final CollisionPart collisionPart) {
+			this.transformPart = transformPart;
+			this.collisionPart = collisionPart;
 		}
+		
 	}
 	
 }
@@ -2,42 +2,75 @@ package dc.slideracer.epf.systems;
 
 import com.badlogic.gdx.math.Vector2;
 
+import dc.slideracer.epf.EntityBinder;
+import dc.slideracer.epf.EntityQuery;
+import dc.slideracer.epf.QuerySystem;
 import dc.slideracer.parts.EmitPart;
 import dclib.epf.Entity;
+import dclib.epf.EntityManager;
 import dclib.epf.EntitySpawner;
-import dclib.epf.EntitySystem;
 import dclib.epf.parts.TransformPart;
 import dclib.geometry.PolygonUtils;
 
-public final class EmitSystem extends EntitySystem {
+public final class EmitSystem extends QuerySystem<EmitSystem.Emitter> {
 
 	private final EntitySpawner entitySpawner;
 	
-	public EmitSystem(final EntitySpawner entitySpawner) {
+	public EmitSystem(final EntityManager entityManager, final EntitySpawner entitySpawner) {
+		super(new EntityQuery<Emitter>(entityManager, binder()));
 		this.entitySpawner = entitySpawner;
 	}
 	
 	@Override
-	public final void update(final float delta, final Entity entity) {
-		if (entity.hasActive(EmitPart.class)) {
-			EmitPart emitPart = entity.get(EmitPart.class);
-			emitPart.update(delta);
-			if (emitPart.canEmit()) {
-				emit(entity);
-			}
+	protected final void update(final float delta, final Emitter emitter) {
+		// Queries only match when an entity is added, so the part being active is checked every update
+		if (!emitter.entity.hasActive(EmitPart.class)) {
+			return;
+		}
+		emitter.emitPart.update(delta);
+		if (emitter.emitPart.canEmit()) {
+			emit(emitter);
 		}
 	}
 	
-	private void emit(final Entity entity) {
-		EmitPart emitPart = entity.get(EmitPart.class);
+	private void emit(final Emitter emitter) {
+		EmitPart emitPart = emitter.emitPart;
 		emitPart.reset();
 		Entity spawn = entitySpawner.spawn(emitPart.getEntityType());
-		TransformPart transformPart = entity.get(TransformPart.class);
+		TransformPart transformPart = emitter.transformPart;
 		TransformPart spawnTransform = spawn.get(TransformPart.class);
 		spawnTransform.setRotation(transformPart.getRotation());
 		Vector2 localSpawnPosition = emitPart.getLocalSpawnPosition();
 		Vector2 spawnPosition = PolygonUtils.toGlobal(localSpawnPosition, transformPart.getPolygon());
 		spawnTransform.setCenter(spawnPosition);
 	}
+	
+	private static EntityBinder<Emitter> binder() {
+		return new EntityBinder<Emitter>() {
+			@Override
+			public boolean matches(final Entity entity) {
+				return entity.has(EmitPart.class) && entity.has(TransformPart.class);
+			}
+			
+			@Override
+			public Emitter bind(final Entity entity) {
+				return new Emitter(entity, entity.get(TransformPart.class), entity.get(EmitPart.class));
+			}
+		};
+	}
+	
+	static final class Emitter {
+		
+		private final Entity entity;
+		private final TransformPart transformPart;
+		private final EmitPart emitPart;
+		
+		public Emitter(final Entity entity, final TransformPart transformPart, final EmitPart emitPart) {
+			this.entity = entity;
+			this.transformPart = transformPart;
+			this.emitPart = emitPart;
+		}
+		
+	}
 
 }
@@ -0,0 +1,31 @@
+package dc.slideracer.epf.systems;
+
+import dc.slideracer.parts.FadePart;
+import dclib.epf.Entity;
+import dclib.epf.EntityManager;
+import dclib.epf.EntitySystem;
+import dclib.epf.parts.DrawablePart;
+
+public final class FadeSystem extends EntitySystem {
+
+	private final EntityManager entityManager;
+	
+	public FadeSystem(final EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+	
+	@Override
+	public final void update(final float delta, final Entity entity) {
+		if (entity.hasActive(FadePart.class)) {
+			FadePart fadePart = entity.get(FadePart.class);
+			fadePart.update(delta);
+			if (fadePart.isFinished()) {
+				entityManager.remove(entity);
+			} else {
+				float level = fadePart.getLevel();
+				entity.get(DrawablePart.class).getSprite().setColor(level, level, level, level);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package dc.slideracer.epf.systems;
+
+import dc.slideracer.parts.FragCloudPart;
+import dclib.epf.Entity;
+import dclib.epf.EntityManager;
+import dclib.epf.EntitySystem;
+
+public final class FragCloudSystem extends EntitySystem {
+
+	private final EntityManager entityManager;
+	
+	public FragCloudSystem(final EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+	
+	@Override
+	public final void update(final float delta, final Entity entity) {
+		if (entity.hasActive(FragCloudPart.class)) {
+			FragCloudPart fragCloudPart = entity.get(FragCloudPart.class);
+			fragCloudPart.update(delta);
+			if (fragCloudPart.isFinished()) {
+				entityManager.remove(entity);
+			}
+		}
+	}
+
+}
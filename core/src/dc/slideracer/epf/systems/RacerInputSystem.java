@@ -4,34 +4,43 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input.Keys;
 import com.badlogic.gdx.math.Vector2;
 
+import dc.slideracer.epf.EntityBinder;
+import dc.slideracer.epf.EntityQuery;
+import dc.slideracer.epf.QuerySystem;
 import dc.slideracer.parts.AccelerationPart;
 import dc.slideracer.parts.RacerInputPart;
 import dc.slideracer.parts.SpeedPart;
 import dclib.epf.Entity;
-import dclib.epf.EntitySystem;
+import dclib.epf.EntityManager;
 import dclib.epf.parts.TranslatePart;
 import dclib.util.Maths;
 
-public final class RacerInputSystem extends EntitySystem {
+public final class RacerInputSystem extends QuerySystem<RacerInputSystem.Racer> {
+	
+	public RacerInputSystem(final EntityManager entityManager) {
+		super(new EntityQuery<Racer>(entityManager, binder()));
+	}
 	
 	@Override
-	public final void update(final float delta, final Entity entity) {
-		if (entity.hasActive(RacerInputPart.class)) {
-			float maxSpeed = entity.get(SpeedPart.class).getSpeed(); 
-			if (Gdx.input.isKeyPressed(Keys.A)) {
-				updateVelocity(delta, entity, -maxSpeed);
-			} else if (Gdx.input.isKeyPressed(Keys.S)) {
-				updateVelocity(delta, entity, maxSpeed);
-			} else {
-				updateVelocity(delta, entity, 0);
-			}
+	protected final void update(final float delta, final Racer racer) {
+		// Queries only match when an entity is added, so the part being active is checked every update
+		if (!racer.entity.hasActive(RacerInputPart.class)) {
+			return;
+		}
+		float maxSpeed = racer.speedPart.getSpeed(); 
+		if (Gdx.input.isKeyPressed(Keys.A)) {
+			updateVelocity(delta, racer, -maxSpeed);
+		} else if (Gdx.input.isKeyPressed(Keys.S)) {
+			updateVelocity(delta, racer, maxSpeed);
+		} else {
+			updateVelocity(delta, racer, 0);
 		}
 	}
 	
-	private void updateVelocity(final float delta, final Entity entity, final float finalVelocityX) {
-		TranslatePart translatePart = entity.get(TranslatePart.class);
+	private void updateVelocity(final float delta, final Racer racer, final float finalVelocityX) {
+		TranslatePart translatePart = racer.translatePart;
 		Vector2 velocity = translatePart.getVelocity();
-		float acceleration = entity.get(AccelerationPart.class).getAcceleration();
+		float acceleration = racer.accelerationPart.getAcceleration();
 		float velocityChange = getVelocityXChange(delta, velocity.x, finalVelocityX, acceleration);
 		if (Maths.distance(velocity.x, finalVelocityX) <= velocityChange) {
 			velocity.x = finalVelocityX;
@@ -54,5 +63,38 @@ public final class RacerInputSystem extends EntitySystem {
 		}
 		return velocityChange;
 	}
+	
+	private static EntityBinder<Racer> binder() {
+		return new EntityBinder<Racer>() {
+			@Override
+			public boolean matches(final Entity entity) {
+				return entity.has(RacerInputPart.class) && entity.has(SpeedPart.class) 
+						&& entity.has(AccelerationPart.class) && entity.has(TranslatePart.class);
+			}
+			
+			@Override
+			public Racer bind(final Entity entity) {
+				return new Racer(entity, entity.get(SpeedPart.class), entity.get(AccelerationPart.class), 
+						entity.get(TranslatePart.class));
+			}
+		};
+	}
+	
+	static final class Racer {
+		
+		private final Entity entity;
+		private final SpeedPart speedPart;
+		private final AccelerationPart accelerationPart;
+		private final TranslatePart translatePart;
+		
+		public Racer(final Entity entity, final SpeedPart speedPart, final AccelerationPart accelerationPart, 
+				final TranslatePart translatePart) {
+			this.entity = entity;
+			this.speedPart = speedPart;
+			this.accelerationPart = accelerationPart;
+			this.translatePart = translatePart;
+		}
+		
+	}
 
 }
@@ -0,0 +1,61 @@
+package dc.slideracer.level;
+
+// The edge of a cliff that faces the path, as interleaved x and y coordinates ordered from bottom to top
+public final class CliffProfile {
+
+	private final float[] edgeVertices;
+	
+	public CliffProfile(final float[] edgeVertices) {
+		if (edgeVertices.length < 4 || edgeVertices.length % 2 != 0) {
+			throw new IllegalArgumentException("A cliff profile needs at least two vertices");
+		}
+		for (int i = 3; i < edgeVertices.length; i += 2) {
+			if (edgeVertices[i] < edgeVertices[i - 2]) {
+				throw new IllegalArgumentException("Cliff edge vertices must not go down");
+			}
+		}
+		this.edgeVertices = edgeVertices;
+	}
+	
+	public final float[] getEdgeVertices() {
+		return edgeVertices.clone();
+	}
+	
+	public final float getBottom() {
+		return edgeVertices[1];
+	}
+	
+	public final float getTop() {
+		return edgeVertices[edgeVertices.length - 1];
+	}
+	
+	public final boolean contains(final float y) {
+		return y >= getBottom() && y <= getTop();
+	}
+	
+	// Binary searches for the first edge that reaches y, so this is O(log n) in the number of edges
+	public final float getX(final float y) {
+		if (!contains(y)) {
+			throw new IllegalArgumentException("Could not calculate cliff x at " + y);
+		}
+		int low = 0;
+		int high = edgeVertices.length / 2 - 2;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (edgeVertices[middle * 2 + 3] < y) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		float startX = edgeVertices[low * 2];
+		float startY = edgeVertices[low * 2 + 1];
+		float endX = edgeVertices[low * 2 + 2];
+		float endY = edgeVertices[low * 2 + 3];
+		if (startY == endY) {
+			return startX;
+		}
+		return startX + (endX - startX) * (y - startY) / (endY - startY);
+	}
+	
+}
@@ -1,23 +1,77 @@
 package dc.slideracer.level;
 
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
 import dclib.epf.Entity;
 import dclib.epf.EntityCache;
 
+// Spawns entities from registered prototypes, reusing entities that have been freed back to their type's pool
 public final class DefaultEntityCache implements EntityCache {
 
-	private final EntityFactory entityFactory;
+	private static final int EXPLOSION_POOL_SIZE = 4;
+	
+	private final Map<String, EntityPool> pools = new HashMap<String, EntityPool>();
+	// Which pool each entity came from, so freeing doesn't need to know the entity type
+	private final Map<Entity, EntityPool> owningPools = new IdentityHashMap<Entity, EntityPool>();
 	
 	public DefaultEntityCache(final EntityFactory entityFactory) {
-		this.entityFactory = entityFactory;
+		register("explosion", explosionPrototype(entityFactory), EXPLOSION_POOL_SIZE);
+	}
+	
+	public final void register(final String entityType, final EntityPrototype prototype, final int prewarmCount) {
+		if (pools.containsKey(entityType)) {
+			throw new IllegalArgumentException("Entity type already registered: " + entityType);
+		}
+		EntityPool pool = new EntityPool(prototype);
+		pool.prewarm(prewarmCount);
+		pools.put(entityType, pool);
+	}
+	
+	public final EntityPool getPool(final String entityType) {
+		EntityPool pool = pools.get(entityType);
+		if (pool == null) {
+			throw new IllegalArgumentException("Unknown entity type: " + entityType);
+		}
+		return pool;
 	}
 	
 	@Override
 	public final Entity create(final String entityType) {
-		if (entityType == "explosion") {
-			return entityFactory.createExplosion();
-		} else {
-			throw new IllegalArgumentException("Unknown entity type: " + entityType);
+		EntityPool pool = getPool(entityType);
+		Entity entity = pool.obtain();
+		owningPools.put(entity, pool);
+		return entity;
+	}
+	
+	// Returns an entity created by this cache to its pool.  Entities from anywhere else are ignored.
+	public final void free(final Entity entity) {
+		EntityPool pool = owningPools.remove(entity);
+		if (pool != null) {
+			pool.free(entity);
+		}
+	}
+	
+	public final void clear() {
+		for (EntityPool pool : pools.values()) {
+			pool.clear();
 		}
+		owningPools.clear();
+	}
+	
+	private EntityPrototype explosionPrototype(final EntityFactory entityFactory) {
+		return new EntityPrototype() {
+			@Override
+			public Entity create() {
+				return entityFactory.createExplosion();
+			}
+			
+			@Override
+			public void reset(final Entity entity) {
+				entityFactory.resetExplosion(entity);
+			}
+		};
 	}
 
 }
@@ -3,11 +3,12 @@ package dc.slideracer.level;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
 import com.badlogic.gdx.graphics.g2d.PolygonRegion;
-import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.PolygonSprite;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
@@ -17,17 +18,16 @@ import dc.slideracer.collision.CollisionType;
 import dc.slideracer.parts.AccelerationPart;
 import dc.slideracer.parts.CollisionPart;
 import dc.slideracer.parts.DamageOnCollisionPart;
+import dc.slideracer.parts.FadePart;
 import dc.slideracer.parts.FragsPart;
 import dc.slideracer.parts.RacerInputPart;
 import dc.slideracer.parts.SpawnOnDeathPart;
 import dc.slideracer.parts.SpeedPart;
 import dclib.epf.Entity;
 import dclib.epf.parts.Attachment;
-import dclib.epf.parts.ColorChangePart;
 import dclib.epf.parts.DrawablePart;
 import dclib.epf.parts.HealthPart;
 import dclib.epf.parts.ParticlesPart;
-import dclib.epf.parts.TimedDeathPart;
 import dclib.epf.parts.TransformPart;
 import dclib.epf.parts.TranslatePart;
 import dclib.geometry.PolygonFactory;
@@ -39,16 +39,30 @@ import dclib.graphics.TextureCache;
 public final class EntityFactory {
 	
 	private static final float RACER_VELOCITY_Y = 8;
+	private static final float BACKGROUND_SCALE = 8;
+	// Covers the rectangles from setRectangleVertices
+	private static final short[] RECTANGLE_TRIANGLES = new short[] { 0, 1, 2, 0, 2, 3 };
 
 	private final UnitConverter unitConverter;
 	private final TextureCache textureCache;
 	private final ConvexHullCache convexHullCache;
+	private final ParticleEffectCache particleEffectCache;
+	// Effects in use by this factory's entities, which go back to the cache on dispose
+	private final List<PooledEffect> particleEffects = new ArrayList<PooledEffect>();
 	
 	public EntityFactory(final UnitConverter unitConverter, final TextureCache textureCache, 
-			final ConvexHullCache convexHullCache) {
+			final ConvexHullCache convexHullCache, final ParticleEffectCache particleEffectCache) {
 		this.unitConverter = unitConverter;
 		this.textureCache = textureCache;
 		this.convexHullCache = convexHullCache;
+		this.particleEffectCache = particleEffectCache;
+	}
+	
+	public final void dispose() {
+		for (PooledEffect particleEffect : particleEffects) {
+			particleEffectCache.free(particleEffect);
+		}
+		particleEffects.clear();
 	}
 	
 	public final Entity createRacer(final Vector2 size, final Vector3 position) {
@@ -79,32 +93,76 @@ public final class EntityFactory {
 		Vector2 size = new Vector2(1, 1);
 		Polygon polygon = convexHullCache.create("objects/explosion", size);
 		Entity entity = createBaseEntity(polygon, 1, region);
-		entity.attach(new ColorChangePart(1, Color.WHITE.cpy(), Color.CLEAR.cpy()));
-		entity.attach(new TimedDeathPart(1));
+		entity.attach(new FadePart(1));
 		return entity;
 	}
 	
+	// Restarts a used explosion, keeping its transform and sprite
+	public final void resetExplosion(final Entity entity) {
+		entity.get(DrawablePart.class).getSprite().setColor(Color.WHITE);
+		entity.get(FadePart.class).reset();
+	}
+	
 	public final Entity createBackground(final Rectangle bounds) {
-		final float backgroundScale = 8;
 		float[] vertices = PolygonFactory.createRectangleVertices(bounds);
-		Polygon polygon = VertexUtils.toPolygon(vertices);
-		float[] regionVertices = VertexUtils.scale(vertices, backgroundScale * unitConverter.getPixelsPerUnit());
-		PolygonRegion region = textureCache.getPolygonRegion("bgs/rock", regionVertices);
+		return createBackground(VertexUtils.toPolygon(vertices), bounds);
+	}
+	
+	// The polygon is used by the entity, so it mustn't be shared
+	public final Entity createBackground(final Polygon polygon, final Rectangle bounds) {
+		float[] regionVertices = new float[8];
+		setRectangleVertices(regionVertices, bounds, BACKGROUND_SCALE * unitConverter.getPixelsPerUnit());
+		TextureRegion textureRegion = textureCache.getTextureRegion("bgs/rock");
+		PolygonRegion region = new PolygonRegion(textureRegion, regionVertices, RECTANGLE_TRIANGLES.clone());
 		Entity entity = createBaseEntity(polygon, -1, region);
 		entity.get(DrawablePart.class).getSprite().setColor(Color.GRAY.cpy());
 		return entity;
 	}
 	
+	// Reinitialises a background entity from a retired terrain section, reusing its vertex buffers and region
+	public final void resetBackground(final Entity entity, final Polygon polygon, final Rectangle bounds) {
+		resetPolygon(entity, polygon);
+		PolygonSprite sprite = entity.get(DrawablePart.class).getSprite();
+		float[] regionVertices = sprite.getRegion().getVertices();
+		setRectangleVertices(regionVertices, bounds, BACKGROUND_SCALE * unitConverter.getPixelsPerUnit());
+		updateTextureCoords(sprite);
+	}
+	
 	public final Entity createTerrain(final float[] vertices) {
-		Polygon polygon = VertexUtils.toPolygon(vertices);
-		float[] regionVertices = VertexUtils.scale(vertices, unitConverter.getPixelsPerUnit());
-		PolygonRegion region = textureCache.getPolygonRegion("bgs/rock", regionVertices);
+		return createTerrain(new TerrainPolygon(vertices));
+	}
+	
+	public final Entity createTerrain(final TerrainPolygon terrainPolygon) {
+		Polygon polygon = terrainPolygon.getPolygon();
+		PolygonRegion region = createTerrainRegion(terrainPolygon);
 		Entity entity = createBaseEntity(polygon, 0, region);
-		entity.attach(new CollisionPart(CollisionType.HAZARD, polygon.getVertices()));
+		entity.attach(new CollisionPart(CollisionType.HAZARD, terrainPolygon.getPartitionsVertices(), true));
 		entity.attach(new DamageOnCollisionPart(100));
 		return entity;
 	}
 	
+	// Reinitialises a cliff or obstacle entity from a retired terrain section.  If the vertex count matches, the new 
+	// shape is copied into the entity's existing vertex buffers and region.
+	public final void resetTerrain(final Entity entity, final TerrainPolygon terrainPolygon) {
+		resetPolygon(entity, terrainPolygon.getPolygon());
+		PolygonSprite sprite = entity.get(DrawablePart.class).getSprite();
+		PolygonRegion region = sprite.getRegion();
+		float[] vertices = terrainPolygon.getVertices();
+		short[] triangles = terrainPolygon.getTriangles();
+		if (region.getVertices().length == vertices.length && region.getTriangles().length == triangles.length) {
+			float[] regionVertices = region.getVertices();
+			float pixelsPerUnit = unitConverter.getPixelsPerUnit();
+			for (int i = 0; i < vertices.length; i++) {
+				regionVertices[i] = vertices[i] * pixelsPerUnit;
+			}
+			System.arraycopy(triangles, 0, region.getTriangles(), 0, triangles.length);
+			updateTextureCoords(sprite);
+		} else {
+			sprite.setRegion(createTerrainRegion(terrainPolygon));
+		}
+		entity.get(CollisionPart.class).setPartitions(terrainPolygon.getPartitionsVertices());
+	}
+	
 	private final Entity createBaseEntity(final Polygon polygon, final float z, final PolygonRegion region) {
 		Entity entity = new Entity();
 		entity.attach(new TransformPart(polygon, z));
@@ -113,13 +171,73 @@ public final class EntityFactory {
 		return entity;
 	}
 	
+	// Copies the shape into the entity's existing polygon, in place if the vertex count matches
+	private final void resetPolygon(final Entity entity, final Polygon polygon) {
+		Polygon entityPolygon = entity.get(TransformPart.class).getPolygon();
+		float[] vertices = polygon.getVertices();
+		float[] entityVertices = entityPolygon.getVertices();
+		if (entityVertices.length == vertices.length) {
+			System.arraycopy(vertices, 0, entityVertices, 0, vertices.length);
+			entityPolygon.dirty();
+		} else {
+			entityPolygon.setVertices(vertices.clone());
+		}
+		entityPolygon.setOrigin(polygon.getOriginX(), polygon.getOriginY());
+		entityPolygon.setPosition(polygon.getX(), polygon.getY());
+		entityPolygon.setRotation(polygon.getRotation());
+		entityPolygon.setScale(polygon.getScaleX(), polygon.getScaleY());
+	}
+	
+	// Recomputes the texture coordinates of a region whose vertices were changed in place, the same way the 
+	// PolygonRegion constructor does.  The sprite keeps its own copy of them, which setRegion would reallocate.
+	private final void updateTextureCoords(final PolygonSprite sprite) {
+		PolygonRegion region = sprite.getRegion();
+		TextureRegion textureRegion = region.getRegion();
+		float[] regionVertices = region.getVertices();
+		float[] textureCoords = region.getTextureCoords();
+		float uvWidth = textureRegion.getU2() - textureRegion.getU();
+		float uvHeight = textureRegion.getV2() - textureRegion.getV();
+		for (int i = 0; i < regionVertices.length; i += 2) {
+			textureCoords[i] = textureRegion.getU() + uvWidth * (regionVertices[i] / textureRegion.getRegionWidth());
+			textureCoords[i + 1] = textureRegion.getV() 
+					+ uvHeight * (1 - (regionVertices[i + 1] / textureRegion.getRegionHeight()));
+		}
+		// Marks the sprite's vertex positions dirty so they are recomputed from the region
+		sprite.setSize(sprite.getWidth(), sprite.getHeight());
+		float[] spriteVertices = sprite.getVertices();
+		for (int i = 0; i < regionVertices.length / 2; i++) {
+			spriteVertices[i * 5 + 3] = textureCoords[i * 2];
+			spriteVertices[i * 5 + 4] = textureCoords[i * 2 + 1];
+		}
+	}
+	
+	// Reuses the terrain polygon's triangulation rather than letting the texture cache triangulate it again
+	private final PolygonRegion createTerrainRegion(final TerrainPolygon terrainPolygon) {
+		float[] regionVertices = VertexUtils.scale(terrainPolygon.getVertices(), unitConverter.getPixelsPerUnit());
+		TextureRegion textureRegion = textureCache.getTextureRegion("bgs/rock");
+		// Copied, since the region's triangles are rewritten when the entity is reused
+		return new PolygonRegion(textureRegion, regionVertices, terrainPolygon.getTriangles().clone());
+	}
+	
+	private final void setRectangleVertices(final float[] vertices, final Rectangle bounds, final float scale) {
+		float left = bounds.x * scale;
+		float bottom = bounds.y * scale;
+		float right = (bounds.x + bounds.width) * scale;
+		float top = (bounds.y + bounds.height) * scale;
+		vertices[0] = left;
+		vertices[1] = bottom;
+		vertices[2] = right;
+		vertices[3] = bottom;
+		vertices[4] = right;
+		vertices[5] = top;
+		vertices[6] = left;
+		vertices[7] = top;
+	}
+	
 	private final Attachment<ParticleEffect> createParticleEffect(final String particleEffectPath, 
 			final Vector2 localPosition) {
-		ParticleEffect effect = new ParticleEffect();
-		TextureAtlas atlas = textureCache.getAtlas("objects");
-		effect.load(Gdx.files.internal("particles/" + particleEffectPath), atlas);
-		effect.scaleEffect(unitConverter.getPixelsPerUnit());
-		effect.start();
+		PooledEffect effect = particleEffectCache.obtain(particleEffectPath, unitConverter.getPixelsPerUnit());
+		particleEffects.add(effect);
 		return new Attachment<ParticleEffect>(effect, localPosition);
 	}
 	
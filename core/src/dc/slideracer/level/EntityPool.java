@@ -0,0 +1,57 @@
+package dc.slideracer.level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dclib.epf.Entity;
+
+public final class EntityPool {
+
+	private final EntityPrototype prototype;
+	private final List<Entity> freeEntities = new ArrayList<Entity>();
+	private int hitCount = 0;
+	private int missCount = 0;
+	
+	public EntityPool(final EntityPrototype prototype) {
+		this.prototype = prototype;
+	}
+	
+	public final int getHitCount() {
+		return hitCount;
+	}
+	
+	public final int getMissCount() {
+		return missCount;
+	}
+	
+	public final int getFreeCount() {
+		return freeEntities.size();
+	}
+	
+	// Creates entities up front so the first spawns don't have to
+	public final void prewarm(final int count) {
+		for (int i = 0; i < count; i++) {
+			freeEntities.add(prototype.create());
+		}
+	}
+	
+	public final Entity obtain() {
+		if (freeEntities.isEmpty()) {
+			missCount++;
+			return prototype.create();
+		}
+		hitCount++;
+		Entity entity = freeEntities.remove(freeEntities.size() - 1);
+		prototype.reset(entity);
+		return entity;
+	}
+	
+	public final void free(final Entity entity) {
+		freeEntities.add(entity);
+	}
+	
+	public final void clear() {
+		freeEntities.clear();
+	}
+	
+}
@@ -0,0 +1,11 @@
+package dc.slideracer.level;
+
+import dclib.epf.Entity;
+
+// Knows how to build an entity type and how to make a used one as good as new
+public interface EntityPrototype {
+
+	Entity create();
+	void reset(final Entity entity);
+	
+}
@@ -0,0 +1,53 @@
+package dc.slideracer.level;
+
+// Advances a simulation in fixed size steps however long frames take.  Time left over is carried to the next frame 
+// and can be used to interpolate what is drawn between the last two steps.
+public abstract class FixedStepAdvancer {
+
+	private final int maxStepsPerFrame;
+	private float stepTime;
+	private float accumulatedTime = 0;
+	
+	public FixedStepAdvancer(final float tickRate, final int maxStepsPerFrame) {
+		if (maxStepsPerFrame < 1) {
+			throw new IllegalArgumentException("Must allow at least one step a frame");
+		}
+		this.maxStepsPerFrame = maxStepsPerFrame;
+		setTickRate(tickRate);
+	}
+	
+	public final void setTickRate(final float tickRate) {
+		if (tickRate <= 0) {
+			throw new IllegalArgumentException("Tick rate must be positive");
+		}
+		stepTime = 1 / tickRate;
+	}
+	
+	public final float getStepTime() {
+		return stepTime;
+	}
+	
+	// How far between the last step and the next one the current time is, from 0 to 1
+	public final float getAlpha() {
+		return accumulatedTime / stepTime;
+	}
+	
+	// Returns the number of steps taken
+	public final int advance(final float delta) {
+		accumulatedTime += delta;
+		int steps = 0;
+		while (accumulatedTime >= stepTime && steps < maxStepsPerFrame) {
+			update(stepTime);
+			accumulatedTime -= stepTime;
+			steps++;
+		}
+		// A long frame is dropped rather than caught up on, so a slow frame can't cause an ever growing backlog
+		if (accumulatedTime >= stepTime) {
+			accumulatedTime %= stepTime;
+		}
+		return steps;
+	}
+	
+	protected abstract void update(final float delta);
+	
+}
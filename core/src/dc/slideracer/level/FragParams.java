@@ -4,7 +4,6 @@ public final class FragParams {
 
 	public int width;
 	public int height;
-	public float z;
 	public float speedModifier;
 	public float fadeTime;
 	
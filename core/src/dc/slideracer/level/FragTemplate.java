@@ -0,0 +1,77 @@
+package dc.slideracer.level;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+// The tiles a texture region is sliced into for a frag size.  Tiles are in pixels, positioned from the bottom left 
+// of the region.
+public final class FragTemplate {
+
+	private final Texture texture;
+	private final int tileCount;
+	private final float[] tileBounds;
+	private final float[] tileUvs;
+	
+	public FragTemplate(final TextureRegion textureRegion, final int fragWidth, final int fragHeight) {
+		if (fragWidth <= 0 || fragHeight <= 0) {
+			throw new IllegalArgumentException("Frag size must be positive");
+		}
+		int regionWidth = textureRegion.getRegionWidth();
+		int regionHeight = textureRegion.getRegionHeight();
+		texture = textureRegion.getTexture();
+		tileCount = divideRoundingUp(regionWidth, fragWidth) * divideRoundingUp(regionHeight, fragHeight);
+		tileBounds = new float[tileCount * 4];
+		tileUvs = new float[tileCount * 4];
+		int tileIndex = 0;
+		for (int x = 0; x < regionWidth; x += fragWidth) {
+			for (int y = 0; y < regionHeight; y += fragHeight) {
+				int width = Math.min(fragWidth, regionWidth - x);
+				int height = Math.min(fragHeight, regionHeight - y);
+				TextureRegion tileRegion = new TextureRegion(textureRegion, x, y, width, height);
+				tileUvs[tileIndex * 4] = tileRegion.getU();
+				tileUvs[tileIndex * 4 + 1] = tileRegion.getV();
+				tileUvs[tileIndex * 4 + 2] = tileRegion.getU2();
+				tileUvs[tileIndex * 4 + 3] = tileRegion.getV2();
+				tileBounds[tileIndex * 4] = x;
+				tileBounds[tileIndex * 4 + 1] = regionHeight - y - height;
+				tileBounds[tileIndex * 4 + 2] = width;
+				tileBounds[tileIndex * 4 + 3] = height;
+				tileIndex++;
+			}
+		}
+	}
+	
+	public final Texture getTexture() {
+		return texture;
+	}
+	
+	public final int getTileCount() {
+		return tileCount;
+	}
+	
+	// Copies u, v, u2 and v2 of every tile into the array
+	public final void getTileUvs(final float[] uvs) {
+		System.arraycopy(tileUvs, 0, uvs, 0, tileUvs.length);
+	}
+	
+	public final float getTileX(final int index) {
+		return tileBounds[index * 4];
+	}
+	
+	public final float getTileY(final int index) {
+		return tileBounds[index * 4 + 1];
+	}
+	
+	public final float getTileWidth(final int index) {
+		return tileBounds[index * 4 + 2];
+	}
+	
+	public final float getTileHeight(final int index) {
+		return tileBounds[index * 4 + 3];
+	}
+	
+	private static int divideRoundingUp(final int dividend, final int divisor) {
+		return (dividend + divisor - 1) / divisor;
+	}
+	
+}
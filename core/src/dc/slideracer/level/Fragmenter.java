@@ -1,99 +1,127 @@
 package dc.slideracer.level;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
-import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.PolygonRegion;
-import com.badlogic.gdx.graphics.g2d.PolygonSprite;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Vector2;
 
+import dc.slideracer.parts.FragCloudPart;
 import dclib.epf.Entity;
-import dclib.epf.parts.ColorChangePart;
-import dclib.epf.parts.DrawablePart;
-import dclib.epf.parts.TimedDeathPart;
-import dclib.epf.parts.TransformPart;
-import dclib.epf.parts.TranslatePart;
-import dclib.geometry.PolygonFactory;
 import dclib.geometry.PolygonUtils;
-import dclib.geometry.UnitConverter;
-import dclib.geometry.VectorUtils;
-import dclib.graphics.RegionFactory;
 
 public final class Fragmenter {
 	
-	private Fragmenter() {
-	}
+	// Slicing a region only depends on the region and the frag size, so it is done once per combination.  Regions 
+	// come from the game's texture cache, so one fragmenter can be shared by every level.
+	private final Map<TemplateKey, FragTemplate> templates = new HashMap<TemplateKey, FragTemplate>();
 	
-	public static final List<Entity> createFrags(final PolygonRegion region, final Polygon parentPolygon, 
-			final FragParams params, final UnitConverter unitConverter) {
-		List<PolygonSprite> fragSprites = createFragSprites(region, params.width, params.height);
-		return createFrags(region.getRegion().getRegionWidth(), region.getRegion().getRegionHeight(), parentPolygon, 
-				fragSprites, params, unitConverter);
+	// Slices the region ahead of time, so the first createFrags for it doesn't have to
+	public final void prepare(final PolygonRegion region, final FragParams params) {
+		getTemplate(region.getRegion(), params.width, params.height);
 	}
 	
-	private static final List<Entity> createFrags(final int regionWidth, final int regionHeight, 
-			final Polygon parentPolygon, final List<PolygonSprite> fragSprites, final FragParams params, 
-			final UnitConverter unitConverter) {
-		List<Entity> frags = new ArrayList<Entity>();
-		Vector2 scale = unitConverter.toPixelUnits(PolygonUtils.size(parentPolygon))
-				.scl(1.0f / regionWidth, 1.0f / regionHeight);
-		for (PolygonSprite fragSprite : fragSprites) {
-			Entity frag = createFrag(fragSprite, parentPolygon, scale, params, unitConverter);
-			frags.add(frag);
+	// Returns a single entity holding every frag, which flies apart from the center of the parent polygon and is 
+	// drawn at the parent's z
+	public final Entity createFrags(final PolygonRegion region, final Polygon parentPolygon, final float z, 
+			final FragParams params) {
+		TextureRegion textureRegion = region.getRegion();
+		FragTemplate template = getTemplate(textureRegion, params.width, params.height);
+		int fragCount = template.getTileCount();
+		float[] positions = new float[fragCount * 2];
+		float[] velocities = new float[fragCount * 2];
+		float[] sizes = new float[fragCount * 2];
+		float[] uvs = new float[fragCount * 4];
+		template.getTileUvs(uvs);
+		Vector2 parentSize = PolygonUtils.size(parentPolygon);
+		float scaleX = parentSize.x / textureRegion.getRegionWidth();
+		float scaleY = parentSize.y / textureRegion.getRegionHeight();
+		Vector2 fragOrigin = getFragOrigin(parentPolygon);
+		float rotation = parentPolygon.getRotation();
+		float cos = MathUtils.cosDeg(rotation);
+		float sin = MathUtils.sinDeg(rotation);
+		for (int i = 0; i < fragCount; i++) {
+			float width = template.getTileWidth(i) * scaleX;
+			float height = template.getTileHeight(i) * scaleY;
+			Vector2 position = PolygonUtils.toGlobal(template.getTileX(i) * scaleX, template.getTileY(i) * scaleY, 
+					parentPolygon);
+			float centerX = position.x + (width * cos - height * sin) / 2;
+			float centerY = position.y + (width * sin + height * cos) / 2;
+			positions[i * 2] = position.x;
+			positions[i * 2 + 1] = position.y;
+			velocities[i * 2] = (centerX - fragOrigin.x) * params.speedModifier;
+			velocities[i * 2 + 1] = (centerY - fragOrigin.y) * params.speedModifier;
+			sizes[i * 2] = width;
+			sizes[i * 2 + 1] = height;
 		}
-		return frags;
-	}
-	
-	private static final Entity createFrag(final PolygonSprite fragSprite, final Polygon parentPolygon, 
-			final Vector2 scale, final FragParams params, final UnitConverter unitConverter) {
+		Texture texture = template.getTexture();
 		Entity entity = new Entity();
-		Polygon fragPolygon = new Polygon();
-		fragPolygon.setRotation(parentPolygon.getRotation());
-		Vector2 fragSize = unitConverter.toWorldUnits(fragSprite.getWidth(), fragSprite.getHeight()).scl(scale);
-		fragPolygon.setVertices(PolygonFactory.createRectangleVertices(fragSize.x, fragSize.y));
-		Vector2 worldPosition = unitConverter.toWorldUnits(fragSprite.getX(), fragSprite.getY()).scl(scale);
-		Vector2 globalPosition = PolygonUtils.toGlobal(worldPosition.x, worldPosition.y, parentPolygon);
-		fragPolygon.setPosition(globalPosition.x, globalPosition.y);
-		entity.attach(new TransformPart(fragPolygon, params.z));
-		entity.attach(new DrawablePart(fragSprite.getRegion()));
-		Vector2 velocity = calculateVelocity(parentPolygon, fragPolygon, params.speedModifier);
-		TranslatePart translatePart = new TranslatePart();
-		translatePart.setVelocity(velocity);
-		entity.attach(translatePart);
-		entity.attach(new TimedDeathPart(params.fadeTime));
-		entity.attach(new ColorChangePart(params.fadeTime, Color.WHITE.cpy(), Color.CLEAR.cpy()));
+		entity.attach(new FragCloudPart(texture, positions, velocities, sizes, uvs, rotation, z, 
+				params.fadeTime));
 		return entity;
 	}
 	
-	private static final Vector2 calculateVelocity(final Polygon parentPolygon, final Polygon childPolygon, 
-			final float speedModifier) {
-		Vector2 offset = VectorUtils.offset(getFragOrigin(parentPolygon), PolygonUtils.center(childPolygon));
-		return VectorUtils.lengthened(offset, offset.len() * speedModifier);
-	}
-	
-	private static final List<PolygonSprite> createFragSprites(final PolygonRegion polygonRegion, final int fragWidth, 
-			final int fragHeight) {
-		List<PolygonSprite> fragSprites = new ArrayList<PolygonSprite>();
-		TextureRegion textureRegion = polygonRegion.getRegion();
-		for (int x = 0; x < textureRegion.getRegionWidth(); x += fragWidth) {
-			for (int y = 0; y < textureRegion.getRegionHeight(); y += fragHeight) {
-				int width = Math.min(fragWidth, textureRegion.getRegionWidth() - x);
-				int height = Math.min(fragHeight, textureRegion.getRegionHeight() - y);
-				TextureRegion fragRegion = new TextureRegion(polygonRegion.getRegion(), x, y, width, height);
-				PolygonSprite fragSprite = new PolygonSprite(RegionFactory.createPolygonRegion(fragRegion));
-				fragSprite.setOrigin(0, 0);
-				fragSprite.setPosition(x, textureRegion.getRegionHeight() - y - height);
-				fragSprites.add(fragSprite);
-			}
+	private FragTemplate getTemplate(final TextureRegion textureRegion, final int fragWidth, final int fragHeight) {
+		TemplateKey key = new TemplateKey(textureRegion, fragWidth, fragHeight);
+		FragTemplate template = templates.get(key);
+		if (template == null) {
+			template = new FragTemplate(textureRegion, fragWidth, fragHeight);
+			templates.put(key, template);
 		}
-		return fragSprites;
+		return template;
 	}
 	
 	private static final Vector2 getFragOrigin(final Polygon polygon) {
 		return PolygonUtils.center(polygon);
 	}
 	
+	// Equal regions of the same texture share a template, even if they are different region instances
+	private static final class TemplateKey {
+		
+		private final Texture texture;
+		private final int regionX;
+		private final int regionY;
+		private final int regionWidth;
+		private final int regionHeight;
+		private final int fragWidth;
+		private final int fragHeight;
+		
+		public TemplateKey(final TextureRegion textureRegion, final int fragWidth, final int fragHeight) {
+			texture = textureRegion.getTexture();
+			regionX = textureRegion.getRegionX();
+			regionY = textureRegion.getRegionY();
+			regionWidth = textureRegion.getRegionWidth();
+			regionHeight = textureRegion.getRegionHeight();
+			this.fragWidth = fragWidth;
+			this.fragHeight = fragHeight;
+		}
+		
+		@Override
+		public final boolean equals(final Object object) {
+			if (!(object instanceof TemplateKey)) {
+				return false;
+			}
+			TemplateKey other = (TemplateKey)object;
+			return texture == other.texture && regionX == other.regionX && regionY == other.regionY 
+					&& regionWidth == other.regionWidth && regionHeight == other.regionHeight 
+					&& fragWidth == other.fragWidth && fragHeight == other.fragHeight;
+		}
+		
+		@Override
+		public final int hashCode() {
+			int hashCode = System.identityHashCode(texture);
+			hashCode = 31 * hashCode + regionX;
+			hashCode = 31 * hashCode + regionY;
+			hashCode = 31 * hashCode + regionWidth;
+			hashCode = 31 * hashCode + regionHeight;
+			hashCode = 31 * hashCode + fragWidth;
+			return 31 * hashCode + fragHeight;
+		}
+		
+	}
+	
 }
@@ -9,7 +9,6 @@ import com.badlogic.gdx.graphics.g2d.PolygonSpriteBatch;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
-import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
@@ -17,30 +16,39 @@ import com.badlogic.gdx.math.Vector3;
 import dc.slideracer.collision.CollisionType;
 import dc.slideracer.collision.system.CollisionChecker;
 import dc.slideracer.collision.system.CollisionManager;
+import dc.slideracer.collision.system.CollisionStats;
 import dc.slideracer.collision.system.DamageCollisionResolver;
+import dc.slideracer.collision.system.SpatialHashBroadPhase;
+import dc.slideracer.epf.QuerySystem;
+import dc.slideracer.epf.SystemAccess;
+import dc.slideracer.epf.SystemScheduler;
+import dc.slideracer.epf.graphics.EntityCuller;
+import dc.slideracer.epf.graphics.FragCloudDrawer;
+import dc.slideracer.epf.graphics.LayeredEntityDrawer;
+import dc.slideracer.epf.graphics.RenderInterpolator;
 import dc.slideracer.epf.systems.CollisionSystem;
 import dc.slideracer.epf.systems.EmitSystem;
+import dc.slideracer.epf.systems.FadeSystem;
+import dc.slideracer.epf.systems.FragCloudSystem;
 import dc.slideracer.epf.systems.RacerInputSystem;
 import dc.slideracer.parts.FragsPart;
 import dc.slideracer.parts.SpawnOnDeathPart;
+import dc.slideracer.profiling.FrameProfiler;
 import dclib.epf.DefaultEntityManager;
-import dclib.epf.DefaultEntitySystemManager;
 import dclib.epf.Entity;
 import dclib.epf.EntityAddedListener;
-import dclib.epf.EntityCache;
 import dclib.epf.EntityManager;
 import dclib.epf.EntityRemovedListener;
 import dclib.epf.EntitySpawner;
-import dclib.epf.EntitySystemManager;
 import dclib.epf.graphics.EntityDrawer;
 import dclib.epf.graphics.EntitySpriteDrawer;
 import dclib.epf.parts.DrawablePart;
 import dclib.epf.parts.HealthPart;
+import dclib.epf.parts.ParticlesPart;
 import dclib.epf.parts.TransformPart;
-import dclib.epf.systems.ColorChangeSystem;
+import dclib.epf.parts.TranslatePart;
 import dclib.epf.systems.DrawableSystem;
 import dclib.epf.systems.ParticleSystem;
-import dclib.epf.systems.TimedDeathSystem;
 import dclib.epf.systems.TranslateSystem;
 import dclib.eventing.DefaultEvent;
 import dclib.eventing.DefaultListener;
@@ -51,9 +59,7 @@ import dclib.geometry.UnitConverter;
 import dclib.graphics.CameraUtils;
 import dclib.graphics.ConvexHullCache;
 import dclib.graphics.TextureCache;
-import dclib.system.Advancer;
 import dclib.util.FloatRange;
-import dclib.util.Maths;
 
 public final class LevelController {
 
@@ -62,41 +68,88 @@ public final class LevelController {
 	private static final float TERRAIN_SECTION_HEIGHT = 3 * VIEWPORT_SIZE.y / PIXELS_PER_UNIT;
 	private static final Vector3 RACER_START_POSITION = new Vector3(0, 0, 1);
 	private static final Vector2 RACER_SIZE = new Vector2(1.5f, 1.5f);
+	private static final float COLLISION_CELL_SIZE = 4;
+	private static final int COLLISION_PARALLEL_PAIR_COUNT = 256;
+	// Seconds of travel that the generated terrain should reach beyond the top of the viewport
+	private static final float TERRAIN_LOOKAHEAD_TIME = 3;
+	private static final int MAX_TERRAIN_SECTIONS = 4;
+	private static final int PROFILED_FRAME_COUNT = 240;
+	private static final float DEFAULT_TICK_RATE = 60;
+	// Beyond this many steps in a frame, the rest of the frame's time is dropped
+	private static final int MAX_STEPS_PER_FRAME = 5;
+	private static final float CULL_MARGIN = 1;
 	
 	private final EventDelegate<DefaultListener> finishedDelegate = new EventDelegate<DefaultListener>();
 	
+	private final long seed;
 	private boolean isRunning = true;
 	private float score = 0;
 	private final EntityFactory entityFactory;
-	private final EntityCache entityCache;
+	private final DefaultEntityCache entityCache;
 	private final TerrainFactory terrainFactory;
+	private final TerrainPipeline terrainPipeline;
 	private final EntityManager entityManager = new DefaultEntityManager();
 	private final EntitySpawner entitySpawner;
-	private final EntitySystemManager entitySystemManager = new DefaultEntitySystemManager(entityManager);
-	private final Advancer advancer;
+	private final FrameProfiler profiler = new FrameProfiler(PROFILED_FRAME_COUNT);
+	private final SystemScheduler systemScheduler = new SystemScheduler(entityManager, profiler);
+	// Run after the library systems, on only the entities they match
+	private final List<QuerySystem<?>> querySystems = new ArrayList<QuerySystem<?>>();
+	private final List<Integer> querySystemPhases = new ArrayList<Integer>();
+	private final int collisionPhase = profiler.addPhase("CollisionManager");
+	private final int terrainPhase = profiler.addPhase("terrain");
+	private final int drawPhase = profiler.addPhase("draw");
+	private final int entityCounter = profiler.addCounter("entities");
+	private final int candidatePairCounter = profiler.addCounter("candidate pairs");
+	private final int collisionCounter = profiler.addCounter("collisions");
+	private final int stepCounter = profiler.addCounter("steps");
+	private final int drawnCounter = profiler.addCounter("drawn entities");
+	private final int culledCounter = profiler.addCounter("culled entities");
+	private final FixedStepAdvancer advancer;
+	private final RenderInterpolator renderInterpolator;
+	// Where the camera was before and after the last step, for drawing in between
+	private final Vector3 previousCameraPosition = new Vector3();
+	private final Vector3 currentCameraPosition = new Vector3();
 	private final Camera camera;
 	private final UnitConverter unitConverter;
+	private final EntityCuller entityCuller;
 	private final List<EntityDrawer> entityDrawers = new ArrayList<EntityDrawer>();
 	private CollisionManager collisionManager;
-	private final List<TerrainSection> terrainSections = new ArrayList<TerrainSection>();
+	private final TerrainSectionBuffer terrainSections = new TerrainSectionBuffer(MAX_TERRAIN_SECTIONS);
+	private final TerrainQuery terrainQuery = new TerrainQuery();
+	private final TerrainPool terrainPool = new TerrainPool();
+	private final Fragmenter fragmenter;
+	private final FragParams fragParams = createFragParams();
 	private Entity racer;
 	private float oldRacerY;
 
-	public LevelController(final TextureCache textureCache, final PolygonSpriteBatch spriteBatch, 
-			final ShapeRenderer shapeRenderer) {
+	public LevelController(final TextureCache textureCache, final ParticleEffectCache particleEffectCache, 
+			final Fragmenter fragmenter, final PolygonSpriteBatch spriteBatch, final ShapeRenderer shapeRenderer) {
+		this(textureCache, particleEffectCache, fragmenter, spriteBatch, shapeRenderer, MathUtils.random.nextLong());
+	}
+	
+	// Levels created with the same seed have the same terrain
+	public LevelController(final TextureCache textureCache, final ParticleEffectCache particleEffectCache, 
+			final Fragmenter fragmenter, final PolygonSpriteBatch spriteBatch, final ShapeRenderer shapeRenderer, 
+			final long seed) {
+		this.seed = seed;
+		this.fragmenter = fragmenter;
 		entityManager.addEntityAddedListener(entityAdded());
 		entityManager.addEntityRemovedListener(entityRemoved());
 		advancer = createAdvancer();
 		camera = createCamera();
 		unitConverter = new UnitConverter(PIXELS_PER_UNIT, camera);
+		renderInterpolator = new RenderInterpolator(entityManager, PIXELS_PER_UNIT);
+		entityCuller = new EntityCuller(camera, PIXELS_PER_UNIT, CULL_MARGIN);
 		ConvexHullCache convexHullCache = new ConvexHullCache(textureCache);
 		Rectangle racerBounds = new Rectangle(RACER_START_POSITION.x, RACER_START_POSITION.y, RACER_SIZE.x, 
 				RACER_SIZE.y);
-		entityFactory = new EntityFactory(unitConverter, textureCache, convexHullCache);
-		terrainFactory = new TerrainFactory(entityFactory, racerBounds);
+		entityFactory = new EntityFactory(unitConverter, textureCache, convexHullCache, particleEffectCache);
+		terrainFactory = new TerrainFactory(entityFactory, terrainPool, racerBounds, seed);
+		terrainPipeline = new TerrainPipeline(terrainFactory);
 		entityCache = new DefaultEntityCache(entityFactory);
 		entitySpawner = new EntitySpawner(entityCache, entityManager);
-		entityDrawers.add(new EntitySpriteDrawer(spriteBatch, camera));
+		entityDrawers.add(new LayeredEntityDrawer(new EntitySpriteDrawer(spriteBatch, camera), 
+				new FragCloudDrawer(spriteBatch, camera, PIXELS_PER_UNIT)));
 //		entityDrawers.add(new EntityTransformDrawer(shapeRenderer, camera, PIXELS_PER_UNIT));
 //		entityDrawers.add(new EntityColliderDrawer(shapeRenderer, camera, PIXELS_PER_UNIT));
 		addSystems();
@@ -111,25 +164,74 @@ public final class LevelController {
 		isRunning = !isRunning;
 	}
 	
+	public final long getSeed() {
+		return seed;
+	}
+	
 	public final int getScore() {
 		return MathUtils.floor(score);
 	}
+	
+	public final TerrainQuery getTerrainQuery() {
+		return terrainQuery;
+	}
+	
+	public final TerrainPool getTerrainPool() {
+		return terrainPool;
+	}
+	
+	public final FrameProfiler getProfiler() {
+		return profiler;
+	}
+	
+	// Steps per second of simulation time, independent of how often frames are drawn
+	public final void setTickRate(final float tickRate) {
+		advancer.setTickRate(tickRate);
+	}
 
 	public final void dispose() {
 		entityManager.dispose();
+		collisionManager.dispose();
+		terrainPipeline.dispose();
+		terrainPool.clear();
+		entityCache.clear();
+		entityFactory.dispose();
+		systemScheduler.dispose();
 	}
 
 	public final void update(final float delta) {
 		if (isRunning) {
-			advancer.advance(delta);
+			profiler.addCount(stepCounter, advancer.advance(delta));
+			long terrainStartTime = System.nanoTime();
 			updateTerrain();
+			profiler.addTime(terrainPhase, System.nanoTime() - terrainStartTime);
 		}
 	}
 
+	// Drawing ends the frame for the profiler
 	public final void draw() {
+		long drawStartTime = System.nanoTime();
+		float alpha = advancer.getAlpha();
+		currentCameraPosition.set(camera.position);
+		camera.position.set(previousCameraPosition).lerp(currentCameraPosition, alpha);
+		camera.update();
+		renderInterpolator.apply(alpha);
 		List<Entity> entities = entityManager.getAll();
+		List<Entity> visibleEntities = entityCuller.cull(entities);
 		for (EntityDrawer entityDrawer : entityDrawers) {
-			entityDrawer.draw(entities);
+			entityDrawer.draw(visibleEntities);
+		}
+		renderInterpolator.restore();
+		camera.position.set(currentCameraPosition);
+		camera.update();
+		profiler.addTime(drawPhase, System.nanoTime() - drawStartTime);
+		if (isRunning) {
+			profiler.addCount(entityCounter, entities.size());
+			profiler.addCount(drawnCounter, visibleEntities.size());
+			profiler.addCount(culledCounter, entityCuller.getCulledCount());
+			profiler.endFrame();
+		} else {
+			profiler.skipFrame();
 		}
 	}
 
@@ -151,6 +253,8 @@ public final class LevelController {
 				spawnOnDeath(entity);
 				fragment(entity);
 				checkFinished(entity);
+				collisionManager.remove(entity);
+				entityCache.free(entity);
 			}
 
 			private void checkFinished(final Entity entity) {
@@ -171,23 +275,49 @@ public final class LevelController {
 	}
 
 	private void addSystems() {
-		entitySystemManager.add(new TranslateSystem());
-		entitySystemManager.add(new CollisionSystem());
-		entitySystemManager.add(new RacerInputSystem());
-		entitySystemManager.add(new TimedDeathSystem(entityManager));
-		entitySystemManager.add(new ColorChangeSystem());
-		entitySystemManager.add(new EmitSystem(entitySpawner));
-		entitySystemManager.add(new ParticleSystem(unitConverter));
-		entitySystemManager.add(new DrawableSystem(unitConverter));
+		// dclib's source isn't available to confirm its systems keep no shared scratch state, so none are split 
+		// between threads.  SystemSchedulerCheck in the desktop module tests that for a dclib build.
+		systemScheduler.add(new TranslateSystem(), 
+				new SystemAccess().reads(TranslatePart.class).writes(TransformPart.class));
+		systemScheduler.add(new FadeSystem(entityManager), new SystemAccess().exclusive());
+		systemScheduler.add(new FragCloudSystem(entityManager), new SystemAccess().exclusive());
+		// The unit converter is shared, so the systems using it declare it as written, which keeps them in separate 
+		// stages
+		systemScheduler.add(new ParticleSystem(unitConverter), 
+				new SystemAccess().reads(TransformPart.class).writes(ParticlesPart.class, UnitConverter.class));
+		systemScheduler.add(new DrawableSystem(unitConverter), 
+				new SystemAccess().reads(TransformPart.class).writes(DrawablePart.class, UnitConverter.class));
+		addSystem(new RacerInputSystem(entityManager));
+		addSystem(new EmitSystem(entityManager, entitySpawner));
+		// Last, so colliders are transformed to where this step moved them before collisions are checked
+		addSystem(new CollisionSystem(entityManager));
+	}
+	
+	private void addSystem(final QuerySystem<?> system) {
+		querySystems.add(system);
+		querySystemPhases.add(profiler.addPhase(system.getClass().getSimpleName()));
 	}
 	
-	private Advancer createAdvancer() {
-		return new Advancer() {
+	private FixedStepAdvancer createAdvancer() {
+		return new FixedStepAdvancer(DEFAULT_TICK_RATE, MAX_STEPS_PER_FRAME) {
 			@Override
 			protected void update(final float delta) {
+				renderInterpolator.savePositions();
+				previousCameraPosition.set(camera.position);
 				oldRacerY = racer.get(TransformPart.class).getPosition().y;
-				entitySystemManager.update(delta);
+				collisionManager.startStep(entityManager.getAll());
+				systemScheduler.update(delta);
+				for (int i = 0; i < querySystems.size(); i++) {
+					long systemStartTime = System.nanoTime();
+					querySystems.get(i).update(delta);
+					profiler.addTime(querySystemPhases.get(i), System.nanoTime() - systemStartTime);
+				}
+				long collisionStartTime = System.nanoTime();
 				collisionManager.checkCollisions(entityManager.getAll());
+				profiler.addTime(collisionPhase, System.nanoTime() - collisionStartTime);
+				CollisionStats collisionStats = collisionManager.getStats();
+				profiler.addCount(candidatePairCounter, collisionStats.getCandidatePairCount());
+				profiler.addCount(collisionCounter, collisionStats.getCollisionCount());
 				updateCamera();
 				updateScore();
 			}
@@ -216,19 +346,21 @@ public final class LevelController {
 		if (entity.hasActive(FragsPart.class)) {
 			DrawablePart drawablePart = entity.get(DrawablePart.class);
 			TransformPart transformPart = entity.get(TransformPart.class);
-			Polygon polygon = transformPart.getPolygon();
-			FragParams fragParams = new FragParams();
-			fragParams.fadeTime = 2;
-			fragParams.height = 8;
-			fragParams.width = 8;
-			fragParams.speedModifier = 20;
-			fragParams.z = transformPart.getZ();
-			List<Entity> frags = Fragmenter.createFrags(drawablePart.getSprite().getRegion(), polygon, fragParams, 
-					unitConverter);
-			entityManager.addAll(frags);
+			Entity frags = fragmenter.createFrags(drawablePart.getSprite().getRegion(), transformPart.getPolygon(), 
+					transformPart.getZ(), fragParams);
+			entityManager.add(frags);
 		}
 	}
 	
+	private FragParams createFragParams() {
+		FragParams fragParams = new FragParams();
+		fragParams.fadeTime = 2;
+		fragParams.height = 8;
+		fragParams.width = 8;
+		fragParams.speedModifier = 20;
+		return fragParams;
+	}
+	
 	private void setupLevel() {
 		setupCollisionManager();
 		spawnInitialEntities();
@@ -237,26 +369,42 @@ public final class LevelController {
 	private void setupCollisionManager() {
 		CollisionChecker damageCollisionChecker = new CollisionChecker();
 		damageCollisionChecker.link(CollisionType.HAZARD, CollisionType.RACER);
-		collisionManager = new CollisionManager(new DamageCollisionResolver(damageCollisionChecker));
+		collisionManager = new CollisionManager(new SpatialHashBroadPhase(COLLISION_CELL_SIZE), 
+				new DamageCollisionResolver(damageCollisionChecker));
+		collisionManager.setContinuous(true);
+		collisionManager.setParallel(COLLISION_PARALLEL_PAIR_COUNT);
 	}
 
 	private void spawnInitialEntities() {
 		racer = entityFactory.createRacer(RACER_SIZE, RACER_START_POSITION);
 		entityManager.add(racer);
-		TerrainSection terrainSection = createInitialTerrain();
-		add(terrainSection);
+		if (racer.hasActive(FragsPart.class)) {
+			fragmenter.prepare(racer.get(DrawablePart.class).getSprite().getRegion(), fragParams);
+		}
+		// So the first frames, which may not have a step yet, look at the racer
+		updateCamera();
+		previousCameraPosition.set(camera.position);
+		TerrainGeometry terrainGeometry = createInitialTerrain();
+		add(terrainFactory.create(terrainGeometry));
+		requestNextTerrain(terrainGeometry);
 	}
 	
-	private TerrainSection createInitialTerrain() {
+	private TerrainGeometry createInitialTerrain() {
 		float terrainY = getViewport().y;
 		float pathBuffer = terrainFactory.getPathBufferRange(RACER_START_POSITION.y).max() / 2;
 		Vector2 leftCliffStartVertex = new Vector2(RACER_START_POSITION.x - pathBuffer, terrainY);
 		float rightCliffStartX = RACER_START_POSITION.x + RACER_SIZE.x + pathBuffer;
 		Vector2 rightCliffStartVertex = new Vector2(rightCliffStartX, terrainY);
-		return terrainFactory.create(leftCliffStartVertex, rightCliffStartVertex, TERRAIN_SECTION_HEIGHT, 
+		return terrainFactory.createGeometry(leftCliffStartVertex, rightCliffStartVertex, TERRAIN_SECTION_HEIGHT, 
 				TERRAIN_SECTION_HEIGHT / 2);
 	}
 	
+	// Starts generating the section that will follow on from the given one
+	private void requestNextTerrain(final TerrainGeometry terrainGeometry) {
+		terrainPipeline.request(terrainGeometry.getLeftCliffTopVertex(), terrainGeometry.getRightCliffTopVertex(), 
+				TERRAIN_SECTION_HEIGHT, 0);
+	}
+	
 	private void updateCamera() {
 		CameraUtils.setViewport(camera, getViewport(), PIXELS_PER_UNIT);
 		camera.update();
@@ -271,21 +419,28 @@ public final class LevelController {
 	}
 	
 	private void updateTerrain() {
-		TerrainSection topTerrainSection = terrainSections.get(terrainSections.size() - 1);
 		Rectangle viewport = CameraUtils.getViewport(camera, unitConverter.getPixelsPerUnit());
-		if (Maths.distance(topTerrainSection.getTop(), RectangleUtils.top(viewport)) < TERRAIN_SECTION_HEIGHT) {
-			for (TerrainSection terrainSection : new ArrayList<TerrainSection>(terrainSections)) {
-				if (terrainSection.getTop() < viewport.y){
-					entityManager.removeAll(terrainSection.getAll());
-					terrainSections.remove(terrainSection);
-				}
-			}
-			Vector2 leftCliffStartVertex = topTerrainSection.getLeftCliffTopVertex();
-			Vector2 rightCliffStartVertex = topTerrainSection.getRightCliffTopVertex();
-			TerrainSection newTerrainSection = terrainFactory.create(leftCliffStartVertex, rightCliffStartVertex, 
-					TERRAIN_SECTION_HEIGHT, 0);
-			add(newTerrainSection);
+		// Sections are ordered bottom to top, so only the bottom one can have scrolled out of view
+		while (!terrainSections.isEmpty() && terrainSections.getBottom().getTop() < viewport.y) {
+			TerrainSection terrainSection = terrainSections.removeBottom();
+			entityManager.removeAll(terrainSection.getAll());
+			terrainQuery.remove(terrainSection);
+			terrainPool.free(terrainSection);
 		}
+		// At most one section a frame, since the next one is only requested once this one is taken
+		float lookaheadTop = RectangleUtils.top(viewport) + getTerrainLookahead();
+		boolean needsTerrain = terrainSections.isEmpty() || terrainSections.getTop().getTop() < lookaheadTop;
+		if (needsTerrain && !terrainSections.isFull()) {
+			TerrainGeometry terrainGeometry = terrainPipeline.take();
+			add(terrainFactory.create(terrainGeometry));
+			requestNextTerrain(terrainGeometry);
+		}
+	}
+	
+	// Faster racers get more terrain generated ahead of them, but never less than a section
+	private float getTerrainLookahead() {
+		float racerVelocityY = racer.get(TranslatePart.class).getVelocity().y;
+		return Math.max(racerVelocityY * TERRAIN_LOOKAHEAD_TIME, TERRAIN_SECTION_HEIGHT);
 	}
 
 	private void updateScore() {
@@ -301,6 +456,7 @@ public final class LevelController {
 	private void add(final TerrainSection terrainSection) {
 		terrainSections.add(terrainSection);
 		entityManager.addAll(terrainSection.getAll());
+		terrainQuery.add(terrainSection);
 	}
 	
 }
@@ -0,0 +1,87 @@
+package dc.slideracer.level;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.ParticleEffect;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool;
+import com.badlogic.gdx.graphics.g2d.ParticleEffectPool.PooledEffect;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+
+// Parses each particle effect definition once into a scaled template and hands out pooled copies of it.  Outlives 
+// levels, so restarting a level does no file reading or parsing.
+public final class ParticleEffectCache {
+
+	private static final int MAX_POOL_SIZE = 8;
+	
+	private final TextureAtlas atlas;
+	private final Map<TemplateKey, ParticleEffectPool> pools = new HashMap<TemplateKey, ParticleEffectPool>();
+	private final List<ParticleEffect> templates = new ArrayList<ParticleEffect>();
+	
+	public ParticleEffectCache(final TextureAtlas atlas) {
+		this.atlas = atlas;
+	}
+	
+	// The effect is reset and started.  Give it back with free when done with it.
+	public final PooledEffect obtain(final String particleEffectPath, final float scale) {
+		TemplateKey key = new TemplateKey(particleEffectPath, scale);
+		ParticleEffectPool pool = pools.get(key);
+		if (pool == null) {
+			pool = new ParticleEffectPool(createTemplate(particleEffectPath, scale), 1, MAX_POOL_SIZE);
+			pools.put(key, pool);
+		}
+		PooledEffect effect = pool.obtain();
+		effect.start();
+		return effect;
+	}
+	
+	public final void free(final PooledEffect effect) {
+		effect.free();
+	}
+	
+	public final void dispose() {
+		for (ParticleEffect template : templates) {
+			template.dispose();
+		}
+		templates.clear();
+		pools.clear();
+	}
+	
+	private ParticleEffect createTemplate(final String particleEffectPath, final float scale) {
+		ParticleEffect template = new ParticleEffect();
+		template.load(Gdx.files.internal("particles/" + particleEffectPath), atlas);
+		template.scaleEffect(scale);
+		templates.add(template);
+		return template;
+	}
+	
+	private static final class TemplateKey {
+		
+		private final String particleEffectPath;
+		private final float scale;
+		
+		public TemplateKey(final String particleEffectPath, final float scale) {
+			this.particleEffectPath = particleEffectPath;
+			this.scale = scale;
+		}
+		
+		@Override
+		public final boolean equals(final Object object) {
+			if (!(object instanceof TemplateKey)) {
+				return false;
+			}
+			TemplateKey other = (TemplateKey)object;
+			return particleEffectPath.equals(other.particleEffectPath) && scale == other.scale;
+		}
+		
+		@Override
+		public final int hashCode() {
+			return 31 * particleEffectPath.hashCode() + Float.floatToIntBits(scale);
+		}
+		
+	}
+	
+}
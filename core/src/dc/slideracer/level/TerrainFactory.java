@@ -1,26 +1,32 @@
 package dc.slideracer.level;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.List;
 
+import com.badlogic.gdx.math.EarClippingTriangulator;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
 
 import dclib.epf.Entity;
-import dclib.geometry.VectorUtils;
+import dclib.geometry.PolygonFactory;
 import dclib.geometry.VertexUtils;
 import dclib.util.FloatRange;
-import dclib.util.Maths;
 
+// Geometry is generated into reusable primitive buffers, so createGeometry must not be called from more than one 
+// thread at a time
 public class TerrainFactory {
 
 	private static final FloatRange EDGE_ANGLE_RANGE = new FloatRange(60, 120);
+	private static final int MAX_INTERMEDIATE_OBSTACLE_VERTICES = 5;
 	
 	private final EntityFactory entityFactory;
+	private final TerrainPool terrainPool;
 	private final Rectangle racerBounds;
 	private final float startY;
 	private final FloatRange edgeYOffsetRange;
@@ -28,255 +34,280 @@ public class TerrainFactory {
 	private final FloatRange endPathBufferRange;
 	// This is so the obstacle looks conjoined with the cliff
 	private final float obstacleBaseDepth;
+	// All terrain randomness comes from here so the same seed always generates the same sections
+	private final RandomXS128 random;
+	private final EarClippingTriangulator triangulator = new EarClippingTriangulator();
+	// Interleaved x and y coordinates of the cliff edges for the section being generated
+	private final FloatArray leftCliffEdgeVertices = new FloatArray();
+	private final FloatArray rightCliffEdgeVertices = new FloatArray();
+	private final float[] intermediateVerticesX = new float[MAX_INTERMEDIATE_OBSTACLE_VERTICES];
+	private final float[] intermediateVerticesY = new float[MAX_INTERMEDIATE_OBSTACLE_VERTICES];
 
-	public TerrainFactory(final EntityFactory entityFactory, final Rectangle racerBounds) {
+	public TerrainFactory(final EntityFactory entityFactory, final TerrainPool terrainPool, 
+			final Rectangle racerBounds, final long seed) {
 		edgeYOffsetRange = new FloatRange(2 * racerBounds.height, 4 * racerBounds.height);
 		beginPathBufferRange = new FloatRange(5 * racerBounds.width, 6 * racerBounds.width);
 		endPathBufferRange =  new FloatRange(2 * racerBounds.width, 3 * racerBounds.width);
 		this.entityFactory = entityFactory;
+		this.terrainPool = terrainPool;
 		this.racerBounds = racerBounds;
 		startY = racerBounds.y;
 		obstacleBaseDepth = racerBounds.width;
+		random = new RandomXS128(seed);
 	}
 	
 	public final TerrainSection create(final Vector2 leftCliffStartVertex, final Vector2 rightCliffStartVertex, 
 			final float height, final float obstacleYOffset) {
+		return create(createGeometry(leftCliffStartVertex, rightCliffStartVertex, height, obstacleYOffset));
+	}
+	
+	// Only assembles the entities, so this is the part that has to run on the render thread.  Entities of retired 
+	// sections are reused from the pool where possible.
+	public final TerrainSection create(final TerrainGeometry geometry) {
+		Entity leftCliff = createTerrain(geometry.getLeftCliff());
+		Entity rightCliff = createTerrain(geometry.getRightCliff());
+		List<Entity> obstacles = new ArrayList<Entity>();
+		for (TerrainPolygon obstacle : geometry.getObstacles()) {
+			obstacles.add(createTerrain(obstacle));
+		}
+		Entity background = createBackground(geometry.getBackgroundPolygon(), geometry.getBackgroundBounds());
+		return new TerrainSection(leftCliff, rightCliff, geometry.getLeftCliffProfile(), 
+				geometry.getRightCliffProfile(), background, obstacles);
+	}
+	
+	private Entity createTerrain(final TerrainPolygon terrainPolygon) {
+		Entity terrain = terrainPool.obtainTerrain(terrainPolygon.getVertices().length / 2);
+		if (terrain == null) {
+			return entityFactory.createTerrain(terrainPolygon);
+		}
+		entityFactory.resetTerrain(terrain, terrainPolygon);
+		return terrain;
+	}
+	
+	private Entity createBackground(final Polygon polygon, final Rectangle bounds) {
+		Entity background = terrainPool.obtainBackground();
+		if (background == null) {
+			return entityFactory.createBackground(polygon, bounds);
+		}
+		entityFactory.resetBackground(background, polygon, bounds);
+		return background;
+	}
+	
+	// Doesn't touch any GL or entity state, so it can run on a worker thread.  All it allocates is the geometry that 
+	// is handed over (each piece's vertices, triangles, polygon and convex partitions, the cliff profiles and the 
+	// background) and the index buffers used to decompose the pieces.  TerrainAllocationBenchmark in the desktop 
+	// module measures it.
+	public final TerrainGeometry createGeometry(final Vector2 leftCliffStartVertex, 
+			final Vector2 rightCliffStartVertex, final float height, final float obstacleYOffset) {
 		final float outsideEdgeBuffer = racerBounds.width * 10;
 		float bottom = leftCliffStartVertex.y;
 		float top = bottom + height;
-		List<Vector2> leftCliffEdgeVertices = createLeftCliffEdgeVertices(leftCliffStartVertex, top);
-		float[] leftCliffEdgeVerticesArray = VertexUtils.toArray(leftCliffEdgeVertices);
-		float leftOutsideEdgeX = VertexUtils.minX(leftCliffEdgeVerticesArray) - outsideEdgeBuffer;
-		List<Vector2> leftCliffVertices = createCliffVertices(leftCliffEdgeVertices, leftOutsideEdgeX);
-		Entity leftCliff = createTerrain(leftCliffVertices);
-		List<Vector2> rightCliffEdgeVertices = createRightCliffEdgeVertices(rightCliffStartVertex, 
-				leftCliffEdgeVertices);
-		float[] rightCliffEdgeVerticesArray = VertexUtils.toArray(rightCliffEdgeVertices);
-		float rightOutsideEdgeX = VertexUtils.maxX(rightCliffEdgeVerticesArray) + outsideEdgeBuffer;
-		List<Vector2> rightCliffVertices = createCliffVertices(rightCliffEdgeVertices, rightOutsideEdgeX);
-		Entity rightCliff = createTerrain(rightCliffVertices);
+		createLeftCliffEdgeVertices(leftCliffStartVertex.x, leftCliffStartVertex.y, top);
+		float leftOutsideEdgeX = minX(leftCliffEdgeVertices) - outsideEdgeBuffer;
+		float[] leftCliffVertices = createCliffVertices(leftCliffEdgeVertices, leftOutsideEdgeX);
+		TerrainPolygon leftCliff = new TerrainPolygon(leftCliffVertices, triangulator);
+		CliffProfile leftCliffProfile = new CliffProfile(leftCliffEdgeVertices.toArray());
+		createRightCliffEdgeVertices(rightCliffStartVertex.x, rightCliffStartVertex.y, top);
+		float rightOutsideEdgeX = maxX(rightCliffEdgeVertices) + outsideEdgeBuffer;
+		float[] rightCliffVertices = createCliffVertices(rightCliffEdgeVertices, rightOutsideEdgeX);
+		TerrainPolygon rightCliff = new TerrainPolygon(rightCliffVertices, triangulator);
+		CliffProfile rightCliffProfile = new CliffProfile(rightCliffEdgeVertices.toArray());
 		float obstacleStartY = leftCliffStartVertex.y + obstacleYOffset;
-		List<Entity> obstacles = createObstacles(leftCliffVertices, rightCliffVertices, obstacleStartY, top);
+		List<TerrainPolygon> obstacles = createObstacles(obstacleStartY, top, leftCliffProfile, rightCliffProfile);
 		float backgroundWidth = rightOutsideEdgeX - leftOutsideEdgeX;
 		Rectangle backgroundBounds = new Rectangle(leftOutsideEdgeX, bottom, backgroundWidth, height);
-		Entity background = entityFactory.createBackground(backgroundBounds);
-		return new TerrainSection(leftCliff, rightCliff, background, obstacles);
+		Polygon backgroundPolygon = VertexUtils.toPolygon(PolygonFactory.createRectangleVertices(backgroundBounds));
+		return new TerrainGeometry(leftCliff, rightCliff, leftCliffProfile, rightCliffProfile, backgroundBounds, 
+				backgroundPolygon, obstacles);
 	}
 
 	public final FloatRange getPathBufferRange(final float vertexY) {
+		return new FloatRange(getMinPathBuffer(vertexY), getMaxPathBuffer(vertexY));
+	}
+	
+	private float getMinPathBuffer(final float vertexY) {
 		float progressRatio = LevelUtils.getProgressRatio(vertexY, startY);
-		float minPathBuffer = Interpolation.linear.apply(beginPathBufferRange.min(), endPathBufferRange.min(), 
-				progressRatio);
-		float maxPathBuffer = Interpolation.linear.apply(beginPathBufferRange.max(), endPathBufferRange.max(), 
-				progressRatio);
-		return new FloatRange(minPathBuffer, maxPathBuffer);
+		return Interpolation.linear.apply(beginPathBufferRange.min(), endPathBufferRange.min(), progressRatio);
 	}
 	
-	private List<Vector2> createLeftCliffEdgeVertices(final Vector2 startVertex, final float terrainTop) {
-		List<Vector2> vertices = new ArrayList<Vector2>();
-		vertices.add(startVertex);
-		while (true) {
-			Vector2 previousVertex = vertices.get(vertices.size() - 1);
-			float vertexOffsetY = edgeYOffsetRange.random();
-			float vertexY = Math.min(previousVertex.y + vertexOffsetY, terrainTop);
-			float edgeAngle = EDGE_ANGLE_RANGE.random();
-			float vertexX = previousVertex.x + vertexOffsetY / (float)Math.tan(Math.toRadians(edgeAngle));
-			vertices.add(new Vector2(vertexX, vertexY));
-			if (vertexY >= terrainTop) {
-				return vertices;
-			}
+	private float getMaxPathBuffer(final float vertexY) {
+		float progressRatio = LevelUtils.getProgressRatio(vertexY, startY);
+		return Interpolation.linear.apply(beginPathBufferRange.max(), endPathBufferRange.max(), progressRatio);
+	}
+	
+	private void createLeftCliffEdgeVertices(final float startX, final float startY, final float terrainTop) {
+		leftCliffEdgeVertices.clear();
+		addVertex(leftCliffEdgeVertices, startX, startY);
+		float vertexX = startX;
+		float vertexY = startY;
+		while (vertexY < terrainTop) {
+			float vertexOffsetY = random(edgeYOffsetRange);
+			vertexY = Math.min(vertexY + vertexOffsetY, terrainTop);
+			float edgeAngle = random(EDGE_ANGLE_RANGE);
+			vertexX += vertexOffsetY / (float)Math.tan(Math.toRadians(edgeAngle));
+			addVertex(leftCliffEdgeVertices, vertexX, vertexY);
 		}
 	}
 	
-	private List<Vector2> createRightCliffEdgeVertices(final Vector2 startVertex, final List<Vector2> leftVertices) {
-		List<Edge> rightEdges = new ArrayList<Edge>();
-		List<Edge> leftEdges = createEdges(leftVertices);
-		Vector2 edgeStartVertex = startVertex.cpy();
-		for (Edge leftEdge : leftEdges) {
+	// Follows the left cliff edge by edge so the path between the cliffs stays passable
+	private void createRightCliffEdgeVertices(final float startX, final float startY, final float terrainTop) {
+		rightCliffEdgeVertices.clear();
+		addVertex(rightCliffEdgeVertices, startX, startY);
+		float edgeStartX = startX;
+		float edgeStartY = startY;
+		int numLeftEdges = leftCliffEdgeVertices.size / 2 - 1;
+		for (int i = 0; i < numLeftEdges && edgeStartY < terrainTop; i++) {
+			float leftEdgeStartX = leftCliffEdgeVertices.get(i * 2);
+			float leftEdgeStartY = leftCliffEdgeVertices.get(i * 2 + 1);
+			float leftEdgeEndX = leftCliffEdgeVertices.get(i * 2 + 2);
+			float leftEdgeEndY = leftCliffEdgeVertices.get(i * 2 + 3);
 			float rightEdgeEndY;
-			if (leftEdges.indexOf(leftEdge) == leftEdges.size() - 1) {
-				rightEdgeEndY = leftEdge.getEnd().y;
+			if (i == numLeftEdges - 1) {
+				rightEdgeEndY = leftEdgeEndY;
 			} else {
-				float rightEdgeOffsetY = MathUtils.random(edgeYOffsetRange.min()) * MathUtils.randomSign();
-				rightEdgeEndY = Math.max(leftEdge.getEnd().y + rightEdgeOffsetY, edgeStartVertex.y);
+				float rightEdgeOffsetY = random(0, edgeYOffsetRange.min()) * (random.nextBoolean() ? 1 : -1);
+				// Never past the top, otherwise the last edge would have to come back down to meet it
+				rightEdgeEndY = Math.min(Math.max(leftEdgeEndY + rightEdgeOffsetY, edgeStartY), terrainTop);
 			}
-			float rightEdgeAngle = getRightEdgeAngle(edgeStartVertex, leftEdge, rightEdgeEndY);
-			float rightEdgeEndX = edgeStartVertex.x + (rightEdgeEndY - edgeStartVertex.y) / (float)Math.tan(rightEdgeAngle);
-			Vector2 endVertex = new Vector2(rightEdgeEndX, rightEdgeEndY);
-			Edge rightEdge = new Edge(edgeStartVertex, endVertex);
-			rightEdges.add(rightEdge);
-			edgeStartVertex = rightEdge.getEnd();
+			float leftEdgeAngle = angle(leftEdgeEndX - leftEdgeStartX, leftEdgeEndY - leftEdgeStartY);
+			float rightEdgeAngle = getRightEdgeAngle(edgeStartX, edgeStartY, leftEdgeEndX, leftEdgeAngle, 
+					rightEdgeEndY);
+			edgeStartX += (rightEdgeEndY - edgeStartY) / (float)Math.tan(rightEdgeAngle);
+			edgeStartY = rightEdgeEndY;
+			addVertex(rightCliffEdgeVertices, edgeStartX, edgeStartY);
 		}
-		return getVertices(rightEdges);
 	}
 
-	private float getRightEdgeAngle(final Vector2 startVertex, final Edge leftEdge, final float rightEdgeEndY) {
+	private float getRightEdgeAngle(final float startX, final float startY, final float leftEdgeEndX, 
+			final float leftEdgeAngle, final float rightEdgeEndY) {
 		final float angleMaxDiff = 10;
-		FloatRange pathBufferRange = getPathBufferRange(rightEdgeEndY);
-		float leftEdgeAngle = leftEdge.getAngle();
-		float minXForPathBuffer = leftEdge.getEnd().x + racerBounds.width + pathBufferRange.min();
-		float minAngleForPathBuffer = new Vector2(minXForPathBuffer, rightEdgeEndY).sub(startVertex).angle();
+		float minXForPathBuffer = leftEdgeEndX + racerBounds.width + getMinPathBuffer(rightEdgeEndY);
+		float minAngleForPathBuffer = angle(minXForPathBuffer - startX, rightEdgeEndY - startY);
 		float minRightEdgeAngle = Math.min(minAngleForPathBuffer, leftEdgeAngle - angleMaxDiff);
-		float maxXForPathBuffer = leftEdge.getEnd().x + racerBounds.width + pathBufferRange.max();
-		float maxAngleForPathBuffer = new Vector2(maxXForPathBuffer, rightEdgeEndY).sub(startVertex).angle();
+		float maxXForPathBuffer = leftEdgeEndX + racerBounds.width + getMaxPathBuffer(rightEdgeEndY);
+		float maxAngleForPathBuffer = angle(maxXForPathBuffer - startX, rightEdgeEndY - startY);
 		float maxRightEdgeAngle = Math.max(maxAngleForPathBuffer, leftEdgeAngle + angleMaxDiff);
-		float rightEdgeAngle = MathUtils.random(minRightEdgeAngle, maxRightEdgeAngle);
+		float rightEdgeAngle = random(minRightEdgeAngle, maxRightEdgeAngle);
 		float clampedRightEdgeAngle = MathUtils.clamp(rightEdgeAngle, EDGE_ANGLE_RANGE.min(), EDGE_ANGLE_RANGE.max());
 		return (float)Math.toRadians(clampedRightEdgeAngle);
 	}
 	
-	private List<Vector2> createCliffVertices(final List<Vector2> cliffEdgeVertices, final float outsideEdgeX) {
-		List<Vector2> cliffVertices = new ArrayList<Vector2>(cliffEdgeVertices);
-		float topY = cliffVertices.get(cliffVertices.size() - 1).y;
-		Vector2 topOutsideVertex = new Vector2(outsideEdgeX, topY);
-		cliffVertices.add(topOutsideVertex);
-		Vector2 bottomOutsideVertex = new Vector2(outsideEdgeX, cliffVertices.get(0).y);
-		cliffVertices.add(bottomOutsideVertex);
+	private float[] createCliffVertices(final FloatArray cliffEdgeVertices, final float outsideEdgeX) {
+		int size = cliffEdgeVertices.size;
+		float[] cliffVertices = new float[size + 4];
+		System.arraycopy(cliffEdgeVertices.items, 0, cliffVertices, 0, size);
+		cliffVertices[size] = outsideEdgeX;
+		cliffVertices[size + 1] = cliffEdgeVertices.get(size - 1);
+		cliffVertices[size + 2] = outsideEdgeX;
+		cliffVertices[size + 3] = cliffEdgeVertices.get(1);
 		return cliffVertices;
 	}
 	
-	private List<Entity> createObstacles(final List<Vector2> leftCliffVertices, 
-			final List<Vector2> rightCliffVertices, final float obstacleStartY, final float terrainTop) {
+	private List<TerrainPolygon> createObstacles(final float obstacleStartY, final float terrainTop, 
+			final CliffProfile leftCliffProfile, final CliffProfile rightCliffProfile) {
 		final float obstacleHeight = racerBounds.height * 1.5f;
-		final FloatRange yOffsetRange = new FloatRange(3 * racerBounds.height, 6 * racerBounds.height);
-		List<Entity> obstacles = new ArrayList<Entity>();
+		final float minYOffset = 3 * racerBounds.height;
+		final float maxYOffset = 6 * racerBounds.height;
+		List<TerrainPolygon> obstacles = new ArrayList<TerrainPolygon>();
 		float obstacleY = obstacleStartY + racerBounds.height;
 		while (true) {
-			obstacleY += yOffsetRange.random();
-			FloatRange obstacleYRange = new FloatRange(obstacleY, obstacleY + obstacleHeight);
-			if (obstacleYRange.max() >= terrainTop) {
+			obstacleY += random(minYOffset, maxYOffset);
+			float obstacleTop = obstacleY + obstacleHeight;
+			if (obstacleTop >= terrainTop) {
 				return obstacles;
 			}
-			List<Entity> newObstacles = createObstaclePair(leftCliffVertices, rightCliffVertices, obstacleYRange);
-			obstacles.addAll(newObstacles);
+			float pathMinX = leftCliffProfile.getX(obstacleY);
+			float pathMaxX = rightCliffProfile.getX(obstacleY);
+			createObstaclePair(obstacleY, obstacleTop, pathMinX, pathMaxX, obstacles);
 		}
 	}
 
-	private List<Entity> createObstaclePair(final List<Vector2> leftCliffVertices, 
-			final List<Vector2> rightCliffVertices, final FloatRange obstacleYRange) {
+	private void createObstaclePair(final float obstacleBottom, final float obstacleTop, final float pathMinX, 
+			final float pathMaxX, final List<TerrainPolygon> obstacles) {
 		final float obstaclePathBuffer = racerBounds.width;
-		List<Entity> obstacles = new ArrayList<Entity>();
-		FloatRange pathRangeBottom = getPathRange(obstacleYRange.min(), leftCliffVertices, rightCliffVertices);
 		float gapWidth = racerBounds.width + obstaclePathBuffer;
-		float maxGapX = pathRangeBottom.max() - gapWidth;
-		float gapX = MathUtils.random(pathRangeBottom.min(), maxGapX);
-		FloatRange pathRange = getPathRange(obstacleYRange.min(), leftCliffVertices, rightCliffVertices); 
-		Entity leftObstacle = createObstacle(obstacleYRange, gapX, pathRange.min() - obstacleBaseDepth);
-		obstacles.add(leftObstacle);
-		Entity rightObstacle = createObstacle(obstacleYRange, gapX + gapWidth, pathRange.max() + obstacleBaseDepth);
-		obstacles.add(rightObstacle);
-		return obstacles;
+		float maxGapX = pathMaxX - gapWidth;
+		float gapX = random(pathMinX, maxGapX);
+		obstacles.add(createObstacle(obstacleBottom, obstacleTop, gapX, pathMinX - obstacleBaseDepth));
+		obstacles.add(createObstacle(obstacleBottom, obstacleTop, gapX + gapWidth, pathMaxX + obstacleBaseDepth));
 	}
 	
-	private Entity createObstacle(final FloatRange obstacleYRange, final float obstacleInnerX, 
-			final float obstacleOuterX) {
-		List<Vector2> intermediateVertices = createIntermediateVerticesWithSetY(obstacleYRange);
-		setObstacleVerticesX(obstacleInnerX, obstacleOuterX, intermediateVertices);
-		List<Vector2> vertices = new ArrayList<Vector2>();
-		vertices.add(new Vector2(obstacleOuterX, obstacleYRange.min()));
-		vertices.addAll(intermediateVertices);
-		vertices.add(new Vector2(obstacleOuterX, obstacleYRange.max()));
-		return entityFactory.createTerrain(VertexUtils.toArray(vertices));
-	}
-
-	private List<Vector2> createIntermediateVerticesWithSetY(
-			final FloatRange obstacleYRange) {
-		final float numIntermediateVertices = MathUtils.random(2, 5);
-		List<Vector2> intermediateVertices = new ArrayList<Vector2>();
+	private TerrainPolygon createObstacle(final float obstacleBottom, final float obstacleTop, 
+			final float obstacleInnerX, final float obstacleOuterX) {
+		int numIntermediateVertices = 2 + random.nextInt(MAX_INTERMEDIATE_OBSTACLE_VERTICES - 1);
 		for (int i = 0; i < numIntermediateVertices; i++) {
-			intermediateVertices.add(new Vector2(0, obstacleYRange.random()));
+			intermediateVerticesY[i] = random(obstacleBottom, obstacleTop);
 		}
-		Collections.sort(intermediateVertices, new Comparator<Vector2>() {
-			@Override
-			public final int compare(final Vector2 v1, final Vector2 v2) {
-				return Float.compare(v1.y, v2.y);
-			}
-		});
-		return intermediateVertices;
+		Arrays.sort(intermediateVerticesY, 0, numIntermediateVertices);
+		setObstacleVerticesX(obstacleInnerX, obstacleOuterX, numIntermediateVertices);
+		float[] vertices = new float[(numIntermediateVertices + 2) * 2];
+		vertices[0] = obstacleOuterX;
+		vertices[1] = obstacleBottom;
+		for (int i = 0; i < numIntermediateVertices; i++) {
+			vertices[(i + 1) * 2] = intermediateVerticesX[i];
+			vertices[(i + 1) * 2 + 1] = intermediateVerticesY[i];
+		}
+		vertices[vertices.length - 2] = obstacleOuterX;
+		vertices[vertices.length - 1] = obstacleTop;
+		return new TerrainPolygon(vertices, triangulator);
 	}
 
-	private void setObstacleVerticesX(final float obstacleInnerX,
-			final float obstacleOuterX, final List<Vector2> intermediateVertices) {
+	private void setObstacleVerticesX(final float obstacleInnerX, final float obstacleOuterX, 
+			final int numIntermediateVertices) {
 		final float sculptOuterXRatio = 0.1f; 
-		int middleVertexIndex = MathUtils.floor(intermediateVertices.size() / 2f);
+		int middleVertexIndex = MathUtils.floor(numIntermediateVertices / 2f);
 		float sculptOuterX = Interpolation.linear.apply(obstacleInnerX, obstacleOuterX, sculptOuterXRatio);
-		intermediateVertices.get(middleVertexIndex).x = obstacleInnerX;
+		intermediateVerticesX[middleVertexIndex] = obstacleInnerX;
 		for (int i = 1; i <= middleVertexIndex; i++) {
 			int upperVertexIndex = middleVertexIndex + i;
-			if (upperVertexIndex < intermediateVertices.size()) {
-				float lastVertexX = intermediateVertices.get(upperVertexIndex - 1).x;
-				intermediateVertices.get(upperVertexIndex).x = MathUtils.random(lastVertexX, sculptOuterX);
+			if (upperVertexIndex < numIntermediateVertices) {
+				float lastVertexX = intermediateVerticesX[upperVertexIndex - 1];
+				intermediateVerticesX[upperVertexIndex] = random(lastVertexX, sculptOuterX);
 			}
 			int lowerVertexIndex = middleVertexIndex - i;
 			if (lowerVertexIndex >= 0) {
-				float lastVertexX = intermediateVertices.get(lowerVertexIndex + 1).x;
-				intermediateVertices.get(lowerVertexIndex).x = MathUtils.random(lastVertexX, sculptOuterX);
+				float lastVertexX = intermediateVerticesX[lowerVertexIndex + 1];
+				intermediateVerticesX[lowerVertexIndex] = random(lastVertexX, sculptOuterX);
 			}
 		}
 	}
 	
-	private FloatRange getPathRange(final float y, final List<Vector2> leftCliffVertices, 
-			final List<Vector2> rightCliffVertices) {
-		float minX = getCliffX(y, leftCliffVertices);
-		float maxX = getCliffX(y, rightCliffVertices);
-		return new FloatRange(minX, maxX);
+	private float random(final FloatRange range) {
+		return random(range.min(), range.max());
 	}
 	
-	private float getCliffX(final float y, final List<Vector2> cliffVertices) {
-		for (int i = 0; i < cliffVertices.size() - 1; i++) {
-			Vector2 currentVertex = cliffVertices.get(i);
-			Vector2 nextVertex = cliffVertices.get(i + 1);
-			if (Maths.isBetween(y, currentVertex.y, nextVertex.y)) {
-				return VectorUtils.getLineX(currentVertex, nextVertex, y);
-			}
-		}
-		throw new IllegalArgumentException("Could not calculate cliff x");
+	private float random(final float start, final float end) {
+		return start + random.nextFloat() * (end - start);
 	}
 	
-	private Entity createTerrain(final List<Vector2> vertices) {
-		float[] verticesArray = VertexUtils.toArray(vertices);
-		return entityFactory.createTerrain(verticesArray);
+	// Same as Vector2.angle, without needing a vector
+	private float angle(final float x, final float y) {
+		float angle = (float)Math.atan2(y, x) * MathUtils.radiansToDegrees;
+		if (angle < 0) {
+			angle += 360;
+		}
+		return angle;
 	}
 	
-	private List<Vector2> getVertices(final List<Edge> edges) {
-		List<Vector2> vertices = new ArrayList<Vector2>();
-		for (Edge edge : edges) {
-			vertices.add(edge.getStart());
-			vertices.add(edge.getEnd());
-		}
-		return vertices;
+	private void addVertex(final FloatArray vertices, final float x, final float y) {
+		vertices.add(x);
+		vertices.add(y);
 	}
 	
-	private List<Edge> createEdges(final List<Vector2> points) {
-		List<Edge> edges= new ArrayList<Edge>();
-		for (int i = 0; i < points.size() - 1; i++) {
-			edges.add(new Edge(points.get(i), points.get(i + 1)));
+	private float minX(final FloatArray vertices) {
+		float minX = Float.MAX_VALUE;
+		for (int i = 0; i < vertices.size; i += 2) {
+			minX = Math.min(minX, vertices.get(i));
 		}
-		return edges;
+		return minX;
 	}
 	
-	private class Edge {
-		
-		private final Vector2 start;
-		private final Vector2 end;
-		
-		public Edge(final Vector2 start, final Vector2 end) {
-			this.start = start;
-			this.end = end;
-		}
-		
-		public final Vector2 getStart() {
-			return start.cpy();
-		}
-		
-		public final Vector2 getEnd() {
-			return end.cpy();
-		}
-		
-		public final float getAngle() {
-			return getEnd().sub(start).angle();
+	private float maxX(final FloatArray vertices) {
+		float maxX = -Float.MAX_VALUE;
+		for (int i = 0; i < vertices.size; i += 2) {
+			maxX = Math.max(maxX, vertices.get(i));
 		}
-		
+		return maxX;
 	}
 	
 }
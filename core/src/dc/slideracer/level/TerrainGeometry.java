@@ -0,0 +1,74 @@
+package dc.slideracer.level;
+
+import java.util.List;
+
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+public final class TerrainGeometry {
+
+	private final TerrainPolygon leftCliff;
+	private final TerrainPolygon rightCliff;
+	private final CliffProfile leftCliffProfile;
+	private final CliffProfile rightCliffProfile;
+	private final Rectangle backgroundBounds;
+	private final Polygon backgroundPolygon;
+	private final List<TerrainPolygon> obstacles;
+	
+	public TerrainGeometry(final TerrainPolygon leftCliff, final TerrainPolygon rightCliff, 
+			final CliffProfile leftCliffProfile, final CliffProfile rightCliffProfile, 
+			final Rectangle backgroundBounds, final Polygon backgroundPolygon, final List<TerrainPolygon> obstacles) {
+		this.leftCliff = leftCliff;
+		this.rightCliff = rightCliff;
+		this.leftCliffProfile = leftCliffProfile;
+		this.rightCliffProfile = rightCliffProfile;
+		this.backgroundBounds = backgroundBounds;
+		this.backgroundPolygon = backgroundPolygon;
+		this.obstacles = obstacles;
+	}
+	
+	public final TerrainPolygon getLeftCliff() {
+		return leftCliff;
+	}
+	
+	public final TerrainPolygon getRightCliff() {
+		return rightCliff;
+	}
+	
+	public final CliffProfile getLeftCliffProfile() {
+		return leftCliffProfile;
+	}
+	
+	public final CliffProfile getRightCliffProfile() {
+		return rightCliffProfile;
+	}
+	
+	public final Rectangle getBackgroundBounds() {
+		return backgroundBounds;
+	}
+	
+	public final Polygon getBackgroundPolygon() {
+		return backgroundPolygon;
+	}
+	
+	public final List<TerrainPolygon> getObstacles() {
+		return obstacles;
+	}
+	
+	public final Vector2 getLeftCliffTopVertex() {
+		return getCliffTopVertex(leftCliff);
+	}
+	
+	public final Vector2 getRightCliffTopVertex() {
+		return getCliffTopVertex(rightCliff);
+	}
+	
+	private Vector2 getCliffTopVertex(final TerrainPolygon cliff) {
+		// The cliff edge ends at the top, followed by the top and bottom outside vertices
+		float[] vertices = cliff.getVertices();
+		int topPointIndex = vertices.length - 6;
+		return new Vector2(vertices[topPointIndex], vertices[topPointIndex + 1]);
+	}
+	
+}
@@ -0,0 +1,66 @@
+package dc.slideracer.level;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import com.badlogic.gdx.math.Vector2;
+
+// Generates the geometry of the next terrain section on a worker thread while the current sections are in play
+public final class TerrainPipeline {
+
+	private final TerrainFactory terrainFactory;
+	private final ExecutorService executor;
+	private Future<TerrainGeometry> nextGeometry = null;
+	
+	public TerrainPipeline(final TerrainFactory terrainFactory) {
+		this.terrainFactory = terrainFactory;
+		executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+			@Override
+			public final Thread newThread(final Runnable runnable) {
+				Thread thread = new Thread(runnable, "terrain-pipeline");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+	
+	public final void request(final Vector2 leftCliffStartVertex, final Vector2 rightCliffStartVertex, 
+			final float height, final float obstacleYOffset) {
+		if (nextGeometry != null) {
+			throw new IllegalStateException("The requested terrain geometry hasn't been taken yet");
+		}
+		nextGeometry = executor.submit(new Callable<TerrainGeometry>() {
+			@Override
+			public final TerrainGeometry call() {
+				return terrainFactory.createGeometry(leftCliffStartVertex, rightCliffStartVertex, height, 
+						obstacleYOffset);
+			}
+		});
+	}
+	
+	// Returns the requested geometry, waiting for the worker if it isn't finished yet
+	public final TerrainGeometry take() {
+		if (nextGeometry == null) {
+			throw new IllegalStateException("No terrain geometry has been requested");
+		}
+		try {
+			return nextGeometry.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for terrain geometry", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Could not create terrain geometry", e.getCause());
+		} finally {
+			nextGeometry = null;
+		}
+	}
+	
+	public final void dispose() {
+		executor.shutdownNow();
+	}
+	
+}
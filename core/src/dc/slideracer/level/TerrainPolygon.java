@@ -0,0 +1,50 @@
+package dc.slideracer.level;
+
+import java.util.List;
+
+import com.badlogic.gdx.math.EarClippingTriangulator;
+import com.badlogic.gdx.math.Polygon;
+
+import dc.slideracer.collision.ConvexDecomposer;
+import dclib.geometry.VertexUtils;
+
+// Geometry of a terrain piece that can be computed without touching any GL or entity state
+public final class TerrainPolygon {
+
+	private final float[] vertices;
+	private final Polygon polygon;
+	// Shared by the render region and the collision partitions, so the polygon is only triangulated once
+	private final short[] triangles;
+	private final List<float[]> partitionsVertices;
+	
+	public TerrainPolygon(final float[] vertices) {
+		this(vertices, new EarClippingTriangulator());
+	}
+	
+	// The triangulator is only used during construction, so one can be reused by a thread for many polygons
+	public TerrainPolygon(final float[] vertices, final EarClippingTriangulator triangulator) {
+		this.vertices = vertices;
+		triangles = triangulator.computeTriangles(vertices).toArray();
+		polygon = VertexUtils.toPolygon(vertices);
+		partitionsVertices = ConvexDecomposer.decompose(polygon.getVertices(), triangles);
+	}
+	
+	public final float[] getVertices() {
+		return vertices;
+	}
+	
+	// Indices of the vertices making up each triangle
+	public final short[] getTriangles() {
+		return triangles;
+	}
+	
+	public final Polygon getPolygon() {
+		return polygon;
+	}
+	
+	// Convex partitions of the polygon in its local space
+	public final List<float[]> getPartitionsVertices() {
+		return partitionsVertices;
+	}
+	
+}
@@ -0,0 +1,104 @@
+package dc.slideracer.level;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.badlogic.gdx.utils.IntMap;
+
+import dclib.epf.Entity;
+import dclib.epf.parts.TransformPart;
+
+// Keeps the entities of retired terrain sections so the next sections can be built from them instead of from scratch.  
+// Terrain is kept by vertex count, since an entity with the same count as the new shape can take it without 
+// reallocating any of its vertex buffers.
+public final class TerrainPool {
+
+	private final IntMap<List<Entity>> freeTerrain = new IntMap<List<Entity>>();
+	private final List<Entity> freeBackgrounds = new ArrayList<Entity>();
+	private int freeTerrainCount = 0;
+	private int hitCount = 0;
+	private int resizedCount = 0;
+	private int missCount = 0;
+	
+	public final int getHitCount() {
+		return hitCount;
+	}
+	
+	// Hits where the reused entity had a different vertex count, so its buffers had to be replaced
+	public final int getResizedCount() {
+		return resizedCount;
+	}
+	
+	public final int getMissCount() {
+		return missCount;
+	}
+	
+	public final int getFreeCount() {
+		return freeTerrainCount + freeBackgrounds.size();
+	}
+	
+	// The section's entities must already have been removed from the entity manager
+	public final void free(final TerrainSection terrainSection) {
+		for (Entity obstacle : terrainSection.getObstacles()) {
+			freeTerrain(obstacle);
+		}
+		freeTerrain(terrainSection.getLeftCliff());
+		freeTerrain(terrainSection.getRightCliff());
+		freeBackgrounds.add(terrainSection.getBackground());
+	}
+	
+	// Returns a free cliff or obstacle entity, preferring one with the vertex count, or null if there isn't one
+	public final Entity obtainTerrain(final int vertexCount) {
+		if (freeTerrainCount == 0) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		freeTerrainCount--;
+		List<Entity> sameCountTerrain = freeTerrain.get(vertexCount);
+		if (sameCountTerrain != null && !sameCountTerrain.isEmpty()) {
+			return sameCountTerrain.remove(sameCountTerrain.size() - 1);
+		}
+		resizedCount++;
+		for (List<Entity> terrain : freeTerrain.values()) {
+			if (!terrain.isEmpty()) {
+				return terrain.remove(terrain.size() - 1);
+			}
+		}
+		throw new IllegalStateException("Free terrain count is out of sync");
+	}
+	
+	// Returns a free background entity, or null if there isn't one
+	public final Entity obtainBackground() {
+		if (freeBackgrounds.isEmpty()) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		return freeBackgrounds.remove(freeBackgrounds.size() - 1);
+	}
+	
+	public final void clear() {
+		freeTerrain.clear();
+		freeTerrainCount = 0;
+		freeBackgrounds.clear();
+	}
+	
+	@Override
+	public final String toString() {
+		return "hits: " + hitCount + ", resized: " + resizedCount + ", misses: " + missCount + ", free: " 
+				+ getFreeCount();
+	}
+	
+	private void freeTerrain(final Entity terrain) {
+		int vertexCount = terrain.get(TransformPart.class).getPolygon().getVertices().length / 2;
+		List<Entity> sameCountTerrain = freeTerrain.get(vertexCount);
+		if (sameCountTerrain == null) {
+			sameCountTerrain = new ArrayList<Entity>();
+			freeTerrain.put(vertexCount, sameCountTerrain);
+		}
+		sameCountTerrain.add(terrain);
+		freeTerrainCount++;
+	}
+	
+}
@@ -0,0 +1,92 @@
+package dc.slideracer.level;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import dc.slideracer.collision.Bvh;
+import dc.slideracer.collision.RaycastHit;
+import dc.slideracer.parts.CollisionPart;
+import dclib.epf.Entity;
+import dclib.epf.parts.TransformPart;
+import dclib.util.FloatRange;
+
+// Answers ray, point and area queries against the colliders of the live terrain sections
+public final class TerrainQuery {
+
+	private final Map<TerrainSection, Bvh> sectionBvhs = new LinkedHashMap<TerrainSection, Bvh>();
+	
+	public final void add(final TerrainSection terrainSection) {
+		List<Entity> terrainPieces = terrainSection.getAll();
+		for (Entity terrainPiece : terrainPieces) {
+			if (terrainPiece.has(CollisionPart.class)) {
+				// The hierarchy is built in world space, which the collision system may not have done yet
+				Polygon polygon = terrainPiece.get(TransformPart.class).getPolygon();
+				CollisionPart collisionPart = terrainPiece.get(CollisionPart.class);
+				if (collisionPart.isDirty(polygon)) {
+					collisionPart.transform(polygon);
+				}
+			}
+		}
+		sectionBvhs.put(terrainSection, new Bvh(terrainPieces));
+	}
+	
+	public final void remove(final TerrainSection terrainSection) {
+		sectionBvhs.remove(terrainSection);
+	}
+	
+	// Returns the first terrain hit along the segment from start to end, or null if nothing is hit
+	public final RaycastHit raycast(final Vector2 start, final Vector2 end) {
+		RaycastHit nearestHit = null;
+		for (Bvh bvh : sectionBvhs.values()) {
+			RaycastHit hit = bvh.raycast(start, end);
+			if (hit != null && (nearestHit == null || hit.getFraction() < nearestHit.getFraction())) {
+				nearestHit = hit;
+			}
+		}
+		return nearestHit;
+	}
+	
+	// Returns the terrain containing the point, or null if the point is in open space
+	public final Entity getTerrainAt(final Vector2 point) {
+		for (Bvh bvh : sectionBvhs.values()) {
+			Entity terrain = bvh.getEntityAt(point.x, point.y);
+			if (terrain != null) {
+				return terrain;
+			}
+		}
+		return null;
+	}
+	
+	public final boolean isInTerrain(final Vector2 point) {
+		return getTerrainAt(point) != null;
+	}
+	
+	// Returns the x range between the cliffs at the height, or null if no live section spans it.  Obstacles are 
+	// not taken into account.
+	public final FloatRange getPathRange(final float y) {
+		for (TerrainSection terrainSection : sectionBvhs.keySet()) {
+			CliffProfile leftCliffProfile = terrainSection.getLeftCliffProfile();
+			CliffProfile rightCliffProfile = terrainSection.getRightCliffProfile();
+			if (leftCliffProfile.contains(y) && rightCliffProfile.contains(y)) {
+				return new FloatRange(leftCliffProfile.getX(y), rightCliffProfile.getX(y));
+			}
+		}
+		return null;
+	}
+	
+	// Returns the terrain with collision bounds overlapping the area
+	public final List<Entity> getOverlapping(final Rectangle area) {
+		List<Entity> terrain = new ArrayList<Entity>();
+		for (Bvh bvh : sectionBvhs.values()) {
+			bvh.getOverlapping(area, terrain);
+		}
+		return terrain;
+	}
+	
+}
@@ -3,26 +3,33 @@ package dc.slideracer.level;
 import java.util.ArrayList;
 import java.util.List;
 
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
 import dclib.epf.Entity;
 import dclib.epf.parts.TransformPart;
-import dclib.geometry.RectangleUtils;
 
 public final class TerrainSection {
 
 	private final Entity leftCliff;
 	private final Entity rightCliff;
+	private final CliffProfile leftCliffProfile;
+	private final CliffProfile rightCliffProfile;
 	private final Entity background;
 	private final List<Entity> obstacles;
+	// Terrain doesn't move once placed, so the bounds are worked out once
+	private final float bottom;
+	private final float top;
 
-	public TerrainSection(final Entity leftCliff, final Entity rightCliff, final Entity background, 
-			final List<Entity> obstacles) {
+	public TerrainSection(final Entity leftCliff, final Entity rightCliff, final CliffProfile leftCliffProfile, 
+			final CliffProfile rightCliffProfile, final Entity background, final List<Entity> obstacles) {
 		this.leftCliff = leftCliff;
 		this.rightCliff = rightCliff;
+		this.leftCliffProfile = leftCliffProfile;
+		this.rightCliffProfile = rightCliffProfile;
 		this.background = background;
 		this.obstacles = obstacles;
+		bottom = leftCliffProfile.getBottom();
+		top = leftCliffProfile.getTop();
 	}
 	
 	public final List<Entity> getAll() {
@@ -33,6 +40,30 @@ public final class TerrainSection {
 		return terrainPieces;
 	}
 	
+	public final Entity getLeftCliff() {
+		return leftCliff;
+	}
+	
+	public final Entity getRightCliff() {
+		return rightCliff;
+	}
+	
+	public final Entity getBackground() {
+		return background;
+	}
+	
+	public final List<Entity> getObstacles() {
+		return obstacles;
+	}
+	
+	public final CliffProfile getLeftCliffProfile() {
+		return leftCliffProfile;
+	}
+	
+	public final CliffProfile getRightCliffProfile() {
+		return rightCliffProfile;
+	}
+	
 	public final Vector2 getLeftCliffTopVertex() {
 		return getCliffTopVertex(leftCliff);
 	}
@@ -41,9 +72,12 @@ public final class TerrainSection {
 		return getCliffTopVertex(rightCliff);
 	}
 	
+	public final float getBottom() {
+		return bottom;
+	}
+	
 	public final float getTop() {
-		Rectangle boundingBox = leftCliff.get(TransformPart.class).getBoundingBox();
-		return RectangleUtils.top(boundingBox);
+		return top;
 	}
 	
 	private Vector2 getCliffTopVertex(final Entity cliff) {
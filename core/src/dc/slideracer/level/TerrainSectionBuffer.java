@@ -0,0 +1,66 @@
+package dc.slideracer.level;
+
+// Fixed capacity ring of the live terrain sections, ordered from the bottom section to the top section
+public final class TerrainSectionBuffer {
+
+	private final TerrainSection[] sections;
+	private int start = 0;
+	private int size = 0;
+	
+	public TerrainSectionBuffer(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		sections = new TerrainSection[capacity];
+	}
+	
+	public final int size() {
+		return size;
+	}
+	
+	public final int getCapacity() {
+		return sections.length;
+	}
+	
+	public final boolean isEmpty() {
+		return size == 0;
+	}
+	
+	public final boolean isFull() {
+		return size == sections.length;
+	}
+	
+	// Index 0 is the bottom section
+	public final TerrainSection get(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for size " + size);
+		}
+		return sections[(start + index) % sections.length];
+	}
+	
+	public final TerrainSection getBottom() {
+		return get(0);
+	}
+	
+	public final TerrainSection getTop() {
+		return get(size - 1);
+	}
+	
+	// Adds a section above the current top section
+	public final void add(final TerrainSection terrainSection) {
+		if (isFull()) {
+			throw new IllegalStateException("Terrain section buffer is full");
+		}
+		sections[(start + size) % sections.length] = terrainSection;
+		size++;
+	}
+	
+	public final TerrainSection removeBottom() {
+		TerrainSection bottom = getBottom();
+		sections[start] = null;
+		start = (start + 1) % sections.length;
+		size--;
+		return bottom;
+	}
+	
+}
@@ -6,11 +6,13 @@ import java.util.List;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import com.badlogic.gdx.math.ConvexHull;
 import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
 
 import dc.slideracer.collision.CollisionType;
+import dc.slideracer.collision.ConvexDecomposer;
 import dc.slideracer.collision.PolygonPartition;
-import dclib.geometry.PolygonFactory;
 
 @XmlRootElement
 public final class CollisionPart {
@@ -19,23 +21,50 @@ public final class CollisionPart {
 	private CollisionType collisionType;
 	// Collision only works with convex polygons, so its necessary to keep convex partitions of the main polygon
 	private final List<PolygonPartition> polygonPartitions = new ArrayList<PolygonPartition>();
+	// Partitions left over from a shape with more of them, kept for the next shape that needs them
+	private final List<PolygonPartition> sparePartitions = new ArrayList<PolygonPartition>();
+	// Union of the partition bounding boxes
+	private final Rectangle boundingBox = new Rectangle();
+	// Static colliders never move once placed, so their partitions only need to be transformed once
+	private boolean isStatic = false;
+	private boolean isTransformed = false;
+	private float transformedX;
+	private float transformedY;
+	private float transformedRotation;
+	private float transformedScaleX;
+	private float transformedScaleY;
+	// Where the parent polygon was at the start of the step, or unset if the collider joined during the step
+	private boolean hasStepStart = false;
+	private float stepStartX;
+	private float stepStartY;
 	
 	public CollisionPart() {
 	}
 	
 	public CollisionPart(final CollisionType collisionType, final float[] vertices) {
+		this(collisionType, vertices, false);
+	}
+	
+	public CollisionPart(final CollisionType collisionType, final float[] vertices, final boolean isStatic) {
+		this(collisionType, ConvexDecomposer.decompose(vertices), isStatic);
+	}
+	
+	// Takes convex partitions that have already been computed, e.g. by the terrain pipeline
+	public CollisionPart(final CollisionType collisionType, final List<float[]> partitionsVertices, 
+			final boolean isStatic) {
 		this.collisionType = collisionType;
-		// TODO: store triangulated vertices?
-		List<float[]> partitionsVertices = PolygonFactory.triangulate(vertices);
-		for (float[] partitionVertices : partitionsVertices) {
-			polygonPartitions.add(new PolygonPartition(partitionVertices));
-		}
+		this.isStatic = isStatic;
+		setPartitions(partitionsVertices);
 	}
 	
 	public final CollisionType getCollisionType() {
 		return collisionType;
 	}
 	
+	public final boolean isStatic() {
+		return isStatic;
+	}
+	
 	public final List<Polygon> getPolygons() {
 		List<Polygon> polygons = new ArrayList<Polygon>();
 		for (PolygonPartition partition : polygonPartitions) {
@@ -48,4 +77,87 @@ public final class CollisionPart {
 		return polygonPartitions;
 	}
 	
+	public final Rectangle getBoundingBox() {
+		return boundingBox;
+	}
+	
+	public final boolean isDirty(final Polygon polygon) {
+		if (!isTransformed) {
+			return true;
+		}
+		if (isStatic) {
+			return false;
+		}
+		return polygon.getX() != transformedX || polygon.getY() != transformedY 
+				|| polygon.getRotation() != transformedRotation || polygon.getScaleX() != transformedScaleX 
+				|| polygon.getScaleY() != transformedScaleY;
+	}
+	
+	// Reuses the existing partitions for the new shape where it can, e.g. when pooled terrain is recycled
+	public final void setPartitions(final List<float[]> partitionsVertices) {
+		while (polygonPartitions.size() > partitionsVertices.size()) {
+			sparePartitions.add(polygonPartitions.remove(polygonPartitions.size() - 1));
+		}
+		for (int i = 0; i < partitionsVertices.size(); i++) {
+			if (i < polygonPartitions.size()) {
+				polygonPartitions.get(i).setVertices(partitionsVertices.get(i));
+			} else if (!sparePartitions.isEmpty()) {
+				PolygonPartition partition = sparePartitions.remove(sparePartitions.size() - 1);
+				partition.setVertices(partitionsVertices.get(i));
+				polygonPartitions.add(partition);
+			} else {
+				polygonPartitions.add(new PolygonPartition(partitionsVertices.get(i)));
+			}
+		}
+		invalidate();
+		updateBoundingBox();
+	}
+	
+	// Forces the partitions to be transformed again, e.g. after a static collider has been moved
+	public final void invalidate() {
+		isTransformed = false;
+	}
+	
+	public final void transform(final Polygon polygon) {
+		for (int i = 0; i < polygonPartitions.size(); i++) {
+			polygonPartitions.get(i).transform(polygon);
+		}
+		updateBoundingBox();
+		isTransformed = true;
+		transformedX = polygon.getX();
+		transformedY = polygon.getY();
+		transformedRotation = polygon.getRotation();
+		transformedScaleX = polygon.getScaleX();
+		transformedScaleY = polygon.getScaleY();
+	}
+	
+	public final void startStep(final Polygon polygon) {
+		hasStepStart = true;
+		stepStartX = polygon.getX();
+		stepStartY = polygon.getY();
+	}
+	
+	// Sweeps the partitions back to where the polygon was when the step started, so they cover the real 
+	// displacement whatever changed the velocity during the step
+	public final void sweep(final Polygon polygon, final ConvexHull convexHull) {
+		float offsetX = hasStepStart ? polygon.getX() - stepStartX : 0;
+		float offsetY = hasStepStart ? polygon.getY() - stepStartY : 0;
+		hasStepStart = false;
+		for (int i = 0; i < polygonPartitions.size(); i++) {
+			polygonPartitions.get(i).sweep(offsetX, offsetY, convexHull);
+		}
+		updateBoundingBox();
+	}
+	
+	public final void updateBoundingBox() {
+		for (int i = 0; i < polygonPartitions.size(); i++) {
+			Rectangle partitionBoundingBox = polygonPartitions.get(i).getBoundingBox();
+			if (i == 0) {
+				boundingBox.set(partitionBoundingBox);
+			} else {
+				boundingBox.merge(partitionBoundingBox);
+			}
+		}
+	}
+	
 }
@@ -0,0 +1,34 @@
+package dc.slideracer.parts;
+
+// Fades an entity from white to clear and then kills it, which is how explosions end.  Pooled entities reset it in
+// place instead of attaching a new part.
+public final class FadePart {
+
+	private final float fadeTime;
+	private float elapsedTime = 0;
+	
+	public FadePart(final float fadeTime) {
+		if (fadeTime <= 0) {
+			throw new IllegalArgumentException("Fade time must be positive");
+		}
+		this.fadeTime = fadeTime;
+	}
+	
+	// Brightness and alpha both go linearly from 1 to 0 over the fade time
+	public final float getLevel() {
+		return Math.max(1 - elapsedTime / fadeTime, 0);
+	}
+	
+	public final boolean isFinished() {
+		return elapsedTime >= fadeTime;
+	}
+	
+	public final void update(final float delta) {
+		elapsedTime += delta;
+	}
+	
+	public final void reset() {
+		elapsedTime = 0;
+	}
+
+}
@@ -0,0 +1,83 @@
+package dc.slideracer.parts;
+
+import com.badlogic.gdx.graphics.Texture;
+
+// All the frags of an explosion in one part.  Each frag is a rectangle in world units that is indexed into the 
+// primitive arrays, so updating and drawing the cloud doesn't touch any per frag objects.
+public final class FragCloudPart {
+
+	private final Texture texture;
+	private final int fragCount;
+	// Bottom left corner of each frag
+	private final float[] positions;
+	private final float[] velocities;
+	private final float[] sizes;
+	// u, v, u2 and v2 of each frag's part of the texture
+	private final float[] uvs;
+	private final float rotation;
+	// Layer of the entity the frags came from, so the cloud is drawn among the sprites in the same order
+	private final float z;
+	private final float fadeTime;
+	private float elapsedTime = 0;
+	
+	public FragCloudPart(final Texture texture, final float[] positions, final float[] velocities, 
+			final float[] sizes, final float[] uvs, final float rotation, final float z, final float fadeTime) {
+		fragCount = positions.length / 2;
+		if (velocities.length != fragCount * 2 || sizes.length != fragCount * 2 || uvs.length != fragCount * 4) {
+			throw new IllegalArgumentException("Frag arrays must all be for the same number of frags");
+		}
+		this.texture = texture;
+		this.positions = positions;
+		this.velocities = velocities;
+		this.sizes = sizes;
+		this.uvs = uvs;
+		this.rotation = rotation;
+		this.z = z;
+		this.fadeTime = fadeTime;
+	}
+	
+	public final Texture getTexture() {
+		return texture;
+	}
+	
+	public final int getFragCount() {
+		return fragCount;
+	}
+	
+	public final float[] getPositions() {
+		return positions;
+	}
+	
+	public final float[] getSizes() {
+		return sizes;
+	}
+	
+	public final float[] getUvs() {
+		return uvs;
+	}
+	
+	public final float getRotation() {
+		return rotation;
+	}
+	
+	public final float getZ() {
+		return z;
+	}
+	
+	// Fades linearly from opaque to clear over the fade time
+	public final float getAlpha() {
+		return Math.max(1 - elapsedTime / fadeTime, 0);
+	}
+	
+	public final boolean isFinished() {
+		return elapsedTime >= fadeTime;
+	}
+	
+	public final void update(final float delta) {
+		elapsedTime += delta;
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] += velocities[i] * delta;
+		}
+	}
+	
+}
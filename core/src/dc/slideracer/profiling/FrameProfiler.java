@@ -0,0 +1,111 @@
+package dc.slideracer.profiling;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Accumulates how long each phase of a frame takes, and counts of things like entities, then keeps the totals of 
+// the last frames in ring buffers.  Phases and counters are registered up front and referred to by index, so 
+// recording a frame doesn't allocate.
+public final class FrameProfiler {
+
+	private static final float NANOS_PER_MICRO = 1000;
+	
+	private final int frameCapacity;
+	private final List<String> phaseNames = new ArrayList<String>();
+	private final List<SampleBuffer> phaseTimes = new ArrayList<SampleBuffer>();
+	private long[] phaseFrameTimes = new long[0];
+	private final List<String> counterNames = new ArrayList<String>();
+	private final List<SampleBuffer> counterValues = new ArrayList<SampleBuffer>();
+	private long[] counterFrameValues = new long[0];
+	private final SampleBuffer frameTimes;
+	private long frameStartTime = System.nanoTime();
+	
+	public FrameProfiler(final int frameCapacity) {
+		this.frameCapacity = frameCapacity;
+		frameTimes = new SampleBuffer(frameCapacity);
+	}
+	
+	public final int addPhase(final String name) {
+		phaseNames.add(name);
+		phaseTimes.add(new SampleBuffer(frameCapacity));
+		phaseFrameTimes = new long[phaseNames.size()];
+		return phaseNames.size() - 1;
+	}
+	
+	public final int addCounter(final String name) {
+		counterNames.add(name);
+		counterValues.add(new SampleBuffer(frameCapacity));
+		counterFrameValues = new long[counterNames.size()];
+		return counterNames.size() - 1;
+	}
+	
+	public final SampleBuffer getPhaseTimes(final int phase) {
+		return phaseTimes.get(phase);
+	}
+	
+	public final SampleBuffer getCounterValues(final int counter) {
+		return counterValues.get(counter);
+	}
+	
+	public final SampleBuffer getFrameTimes() {
+		return frameTimes;
+	}
+	
+	// Phases can be timed more than once in a frame, e.g. once per entity, and the times are added up
+	public final void addTime(final int phase, final long nanos) {
+		phaseFrameTimes[phase] += nanos;
+	}
+	
+	public final void addCount(final int counter, final long count) {
+		counterFrameValues[counter] += count;
+	}
+	
+	public final void endFrame() {
+		long frameEndTime = System.nanoTime();
+		frameTimes.add(frameEndTime - frameStartTime);
+		for (int i = 0; i < phaseFrameTimes.length; i++) {
+			phaseTimes.get(i).add(phaseFrameTimes[i]);
+			phaseFrameTimes[i] = 0;
+		}
+		for (int i = 0; i < counterFrameValues.length; i++) {
+			counterValues.get(i).add(counterFrameValues[i]);
+			counterFrameValues[i] = 0;
+		}
+		frameStartTime = frameEndTime;
+	}
+	
+	// Drops what has been recorded for the current frame, e.g. while the level is paused
+	public final void skipFrame() {
+		for (int i = 0; i < phaseFrameTimes.length; i++) {
+			phaseFrameTimes[i] = 0;
+		}
+		for (int i = 0; i < counterFrameValues.length; i++) {
+			counterFrameValues[i] = 0;
+		}
+		frameStartTime = System.nanoTime();
+	}
+	
+	// Times are in microseconds
+	public final void appendSummary(final StringBuilder summary) {
+		appendLine(summary, "frame", frameTimes, true);
+		for (int i = 0; i < phaseNames.size(); i++) {
+			appendLine(summary, phaseNames.get(i), phaseTimes.get(i), true);
+		}
+		for (int i = 0; i < counterNames.size(); i++) {
+			appendLine(summary, counterNames.get(i), counterValues.get(i), false);
+		}
+	}
+	
+	private void appendLine(final StringBuilder summary, final String name, final SampleBuffer samples, 
+			final boolean isTime) {
+		summary.append(name).append(isTime ? " (us)" : "");
+		summary.append("  p50: ").append(toDisplayValue(samples.getPercentile(50), isTime));
+		summary.append("  p99: ").append(toDisplayValue(samples.getPercentile(99), isTime));
+		summary.append("  max: ").append(toDisplayValue(samples.getMax(), isTime)).append('\n');
+	}
+	
+	private long toDisplayValue(final long value, final boolean isTime) {
+		return isTime ? Math.round(value / NANOS_PER_MICRO) : value;
+	}
+	
+}
@@ -0,0 +1,79 @@
+package dc.slideracer.profiling;
+
+import java.util.Arrays;
+
+// Fixed size ring of the most recent samples.  Summaries sort a preallocated copy, so nothing is allocated after 
+// construction.
+public final class SampleBuffer {
+
+	private final long[] samples;
+	private final long[] sortedSamples;
+	private int start = 0;
+	private int size = 0;
+	private boolean isSorted = true;
+	
+	public SampleBuffer(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Capacity must be at least 1");
+		}
+		samples = new long[capacity];
+		sortedSamples = new long[capacity];
+	}
+	
+	public final int size() {
+		return size;
+	}
+	
+	public final void add(final long sample) {
+		if (size < samples.length) {
+			samples[(start + size) % samples.length] = sample;
+			size++;
+		} else {
+			samples[start] = sample;
+			start = (start + 1) % samples.length;
+		}
+		isSorted = false;
+	}
+	
+	public final void clear() {
+		start = 0;
+		size = 0;
+		isSorted = true;
+	}
+	
+	public final long getLatest() {
+		if (size == 0) {
+			return 0;
+		}
+		return samples[(start + size - 1) % samples.length];
+	}
+	
+	// Nearest rank percentile, where percentile is between 0 and 100
+	public final long getPercentile(final float percentile) {
+		if (size == 0) {
+			return 0;
+		}
+		sort();
+		int rank = (int)Math.ceil(percentile / 100 * size);
+		return sortedSamples[Math.max(rank - 1, 0)];
+	}
+	
+	public final long getMax() {
+		if (size == 0) {
+			return 0;
+		}
+		sort();
+		return sortedSamples[size - 1];
+	}
+	
+	private void sort() {
+		if (!isSorted) {
+			for (int i = 0; i < size; i++) {
+				sortedSamples[i] = samples[(start + i) % samples.length];
+			}
+			Arrays.sort(sortedSamples, 0, size);
+			isSorted = true;
+		}
+	}
+	
+}
@@ -9,6 +9,7 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
 import dc.slideracer.level.LevelController;
+import dc.slideracer.ui.FontSize;
 import dc.slideracer.ui.UiPack;
 import dclib.system.Input;
 import dclib.ui.StageUtils;
@@ -23,6 +24,8 @@ public final class LevelScreen implements Screen {
 	private Table worldTable;
 	private Table statusTable;
 	private Label scoreValueLabel;
+	private Label profileLabel;
+	private final StringBuilder profileText = new StringBuilder();
 	
 	public LevelScreen(final LevelController controller, final UiPack uiPack) {
 		this.controller = controller;
@@ -74,6 +77,9 @@ public final class LevelScreen implements Screen {
 	private Stage createStage() {
 		Stage stage = new Stage(new ScreenViewport());
 		worldTable = uiPack.table();
+		profileLabel = uiPack.label("", FontSize.SMALL);
+		profileLabel.setVisible(false);
+		worldTable.add(profileLabel).expand().top().left();
 		Table statusTable = createStatusTable();
 		Table mainTable = createMainTable(worldTable, statusTable);
 		stage.addActor(mainTable);
@@ -99,6 +105,11 @@ public final class LevelScreen implements Screen {
 	private void updateUi() {
 		String scoreText = Integer.toString(controller.getScore());
 		scoreValueLabel.setText(scoreText);
+		if (profileLabel.isVisible()) {
+			profileText.setLength(0);
+			controller.getProfiler().appendSummary(profileText);
+			profileLabel.setText(profileText);
+		}
 	}
 
 	private void draw() {
@@ -119,6 +130,9 @@ public final class LevelScreen implements Screen {
 			case Keys.ESCAPE:
 				controller.toggleRunning();
 				return true;
+			case Keys.F3:
+				profileLabel.setVisible(!profileLabel.isVisible());
+				return true;
 			};
 			return false;
 		}
@@ -0,0 +1,79 @@
+package dc.slideracer.desktop;
+
+import java.util.List;
+
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+
+import dc.slideracer.epf.SystemAccess;
+import dc.slideracer.epf.SystemScheduler;
+import dc.slideracer.profiling.FrameProfiler;
+import dclib.epf.DefaultEntityManager;
+import dclib.epf.Entity;
+import dclib.epf.EntityManager;
+import dclib.epf.parts.TransformPart;
+import dclib.epf.parts.TranslatePart;
+import dclib.epf.systems.TranslateSystem;
+
+// Runs the same seeded steps through the system scheduler single threaded and with workers, and compares the entity
+// transforms.  Run it against the dclib in use before declaring a dclib system per entity in the level.
+public class SystemSchedulerCheck {
+
+	private static final long SEED = 42;
+	private static final int ENTITY_COUNT = 512;
+	private static final int STEP_COUNT = 600;
+	private static final float STEP_DELTA = 1 / 60f;
+	private static final int WORKER_COUNT = 2;
+
+	public static void main (final String[] arg) {
+		float[] singleThreadedPositions = run(false);
+		float[] parallelPositions = run(true);
+		for (int i = 0; i < singleThreadedPositions.length; i++) {
+			if (singleThreadedPositions[i] != parallelPositions[i]) {
+				System.out.println("Entity " + i / 2 + " differs: single threaded " + singleThreadedPositions[i]
+						+ ", parallel " + parallelPositions[i]);
+				System.exit(1);
+			}
+		}
+		System.out.println("Transforms match after " + STEP_COUNT + " steps of " + ENTITY_COUNT + " entities");
+	}
+
+	private static float[] run(final boolean isParallel) {
+		EntityManager entityManager = new DefaultEntityManager();
+		RandomXS128 random = new RandomXS128(SEED);
+		for (int i = 0; i < ENTITY_COUNT; i++) {
+			Polygon polygon = new Polygon(new float[] { 0, 0, 1, 0, 1, 1, 0, 1 });
+			polygon.setPosition(random.nextFloat() * 100, random.nextFloat() * 100);
+			Entity entity = new Entity();
+			entity.attach(new TransformPart(polygon, 0));
+			TranslatePart translatePart = new TranslatePart();
+			translatePart.setVelocity(new Vector2(random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10));
+			entity.attach(translatePart);
+			entityManager.add(entity);
+		}
+		FrameProfiler profiler = new FrameProfiler(STEP_COUNT);
+		SystemScheduler systemScheduler = new SystemScheduler(entityManager, profiler);
+		systemScheduler.add(new TranslateSystem(),
+				new SystemAccess().reads(TranslatePart.class).writes(TransformPart.class).perEntity());
+		if (isParallel) {
+			systemScheduler.setParallel(WORKER_COUNT);
+		} else {
+			systemScheduler.setSingleThreaded();
+		}
+		for (int i = 0; i < STEP_COUNT; i++) {
+			systemScheduler.update(STEP_DELTA);
+			profiler.endFrame();
+		}
+		systemScheduler.dispose();
+		List<Entity> entities = entityManager.getAll();
+		float[] positions = new float[entities.size() * 2];
+		for (int i = 0; i < entities.size(); i++) {
+			Polygon polygon = entities.get(i).get(TransformPart.class).getPolygon();
+			positions[i * 2] = polygon.getX();
+			positions[i * 2 + 1] = polygon.getY();
+		}
+		return positions;
+	}
+
+}
@@ -0,0 +1,54 @@
+package dc.slideracer.desktop;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+import dc.slideracer.level.TerrainFactory;
+import dc.slideracer.level.TerrainGeometry;
+
+// Reports the bytes allocated by TerrainFactory.createGeometry per section, which is the work done off the render
+// thread for each new terrain section.  Uses the level's racer size and section height.
+public class TerrainAllocationBenchmark {
+
+	private static final long SEED = 42;
+	private static final float SECTION_HEIGHT = 45;
+	private static final int WARMUP_SECTION_COUNT = 100;
+	private static final int MEASURED_SECTION_COUNT = 200;
+
+	public static void main (final String[] arg) {
+		// Per thread allocation counts are an extension that not every JVM provides
+		ThreadMXBean standardThreadMXBean = ManagementFactory.getThreadMXBean();
+		if (!(standardThreadMXBean instanceof com.sun.management.ThreadMXBean)) {
+			System.err.println("This JVM doesn't report allocated bytes per thread");
+			System.exit(1);
+		}
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean)standardThreadMXBean;
+		if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+			System.err.println("This JVM doesn't support measuring allocated bytes per thread");
+			System.exit(1);
+		}
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		long threadId = Thread.currentThread().getId();
+		Rectangle racerBounds = new Rectangle(0, 0, 1.5f, 1.5f);
+		TerrainFactory terrainFactory = new TerrainFactory(null, null, racerBounds, SEED);
+		float pathBuffer = terrainFactory.getPathBufferRange(racerBounds.y).max() / 2;
+		Vector2 leftCliffStartVertex = new Vector2(racerBounds.x - pathBuffer, 0);
+		Vector2 rightCliffStartVertex = new Vector2(racerBounds.x + racerBounds.width + pathBuffer, 0);
+		long allocatedBytes = 0;
+		for (int i = 0; i < WARMUP_SECTION_COUNT + MEASURED_SECTION_COUNT; i++) {
+			long startAllocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+			TerrainGeometry geometry = terrainFactory.createGeometry(leftCliffStartVertex, rightCliffStartVertex,
+					SECTION_HEIGHT, 0);
+			if (i >= WARMUP_SECTION_COUNT) {
+				allocatedBytes += threadMXBean.getThreadAllocatedBytes(threadId) - startAllocatedBytes;
+			}
+			leftCliffStartVertex = geometry.getLeftCliffTopVertex();
+			rightCliffStartVertex = geometry.getRightCliffTopVertex();
+		}
+		System.out.println("Bytes allocated per section: " + allocatedBytes / MEASURED_SECTION_COUNT);
+	}
+
+}